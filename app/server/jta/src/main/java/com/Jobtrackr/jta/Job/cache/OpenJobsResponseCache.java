@@ -0,0 +1,92 @@
+package com.Jobtrackr.jta.Job.cache;
+
+import com.Jobtrackr.jta.Job.search.OpenJobIndexer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU of already-serialized public job listing pages, each with a strong ETag.
+ *
+ * Entries are stamped with {@link OpenJobIndexer#version()} read before rendering. The
+ * version only moves after a create or close has reached the database and every index,
+ * so a stamped entry can never hide a later change; stale entries are dropped on the
+ * first lookup after the version moves.
+ */
+@Component
+public class OpenJobsResponseCache {
+
+    private static final int MAX_ENTRIES = 512;
+
+    private final OpenJobIndexer openJobIndexer;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, CachedResponse> entries =
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+    private long entriesVersion;
+
+    public OpenJobsResponseCache(OpenJobIndexer openJobIndexer, ObjectMapper objectMapper) {
+        this.openJobIndexer = openJobIndexer;
+        this.objectMapper = objectMapper;
+    }
+
+    public CachedResponse get(String key, Supplier<Object> loader) {
+        long version = openJobIndexer.version();
+        synchronized (this) {
+            if (entriesVersion != version) {
+                entries.clear();
+                entriesVersion = version;
+            }
+            CachedResponse cached = entries.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        CachedResponse rendered = render(loader.get());
+
+        synchronized (this) {
+            if (entriesVersion == version) {
+                entries.put(key, rendered);
+            }
+        }
+        return rendered;
+    }
+
+    private CachedResponse render(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String etag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+            return new CachedResponse(json, etag);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to render job listing", e);
+        }
+    }
+
+    public static final class CachedResponse {
+
+        private final byte[] body;
+        private final String etag;
+
+        private CachedResponse(byte[] body, String etag) {
+            this.body = body;
+            this.etag = etag;
+        }
+
+        public byte[] getBody() { return body; }
+        public String getEtag() { return etag; }
+    }
+}
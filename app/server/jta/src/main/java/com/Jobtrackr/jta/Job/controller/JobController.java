@@ -1,16 +1,40 @@
 package com.Jobtrackr.jta.Job.controller;
 
+import com.Jobtrackr.jta.Job.cache.OpenJobsResponseCache;
+import com.Jobtrackr.jta.Job.dto.FacetedJobPage;
 import com.Jobtrackr.jta.Job.dto.JobCreateRequest;
+import com.Jobtrackr.jta.Job.dto.JobImportResponse;
 import com.Jobtrackr.jta.Job.dto.JobListResponse;
+import com.Jobtrackr.jta.Job.dto.JobMatchResponse;
 import com.Jobtrackr.jta.Job.dto.JobResponse;
+import com.Jobtrackr.jta.Job.dto.RecruiterJobResponse;
+import com.Jobtrackr.jta.Job.dto.SalaryStatsResponse;
+import com.Jobtrackr.jta.Job.dto.TitleAutocompleteStats;
+import com.Jobtrackr.jta.Job.dto.TitleSuggestion;
+import com.Jobtrackr.jta.Job.entity.JobStatus;
+import com.Jobtrackr.jta.Job.entity.JobType;
+import com.Jobtrackr.jta.Job.search.JobFacetFilter;
+import com.Jobtrackr.jta.Job.search.SalaryBand;
+import com.Jobtrackr.jta.Job.service.JobImportService;
 import com.Jobtrackr.jta.Job.service.JobService;
+import com.Jobtrackr.jta.export.ExportFormat;
+import com.Jobtrackr.jta.pagination.CursorSlice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -18,9 +42,15 @@ import java.util.UUID;
 public class JobController {
 
     private final JobService jobService;
+    private final JobImportService jobImportService;
+    private final OpenJobsResponseCache openJobsResponseCache;
 
-    public JobController(JobService jobService) {
+    public JobController(JobService jobService,
+                         JobImportService jobImportService,
+                         OpenJobsResponseCache openJobsResponseCache) {
         this.jobService = jobService;
+        this.jobImportService = jobImportService;
+        this.openJobsResponseCache = openJobsResponseCache;
     }
 
     @PostMapping
@@ -28,8 +58,15 @@ public class JobController {
         return jobService.createJob(request);
     }
 
+    @PostMapping(value = "/import", consumes = {JobImportService.NDJSON, JobImportService.CSV})
+    public ResponseEntity<JobImportResponse> importJobs(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(
+                jobImportService.importJobs(request.getInputStream(), request.getContentType())
+        );
+    }
+
     @GetMapping("/recruiter")
-    public ResponseEntity<Page<JobListResponse>> getMyJobs(
+    public ResponseEntity<Page<RecruiterJobResponse>> getMyJobs(
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC)
             Pageable pageable) {
         return ResponseEntity.ok(jobService.getJobsByRecruiter(pageable));
@@ -42,13 +79,96 @@ public class JobController {
         return ResponseEntity.ok(jobService.getAllJobsAdmin(pageable));
     }
 
-    @GetMapping
-    public ResponseEntity<Page<JobListResponse>> getOpenJobs(
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportJobs(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) JobStatus status) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.attachment("jobs"))
+                .body(jobService.exportJobs(exportFormat, status));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getOpenJobs(
+            @RequestParam(required = false) List<JobType> type,
+            @RequestParam(required = false) List<String> location,
+            @RequestParam(required = false) List<SalaryBand> salaryBand,
             @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC)
-            Pageable pageable) {
+            Pageable pageable,
+            WebRequest webRequest) {
+
+        JobFacetFilter filter = new JobFacetFilter(type, location, salaryBand);
+        String cacheKey = pageable.getPageNumber() + "|" + pageable.getPageSize() + "|" + pageable.getSort()
+                + "|" + filter.cacheKey();
 
-        return ResponseEntity.ok(jobService.getOpenJobs(pageable));
+        OpenJobsResponseCache.CachedResponse page =
+                openJobsResponseCache.get(cacheKey, () -> jobService.getOpenJobs(filter, pageable));
+
+        if (webRequest.checkNotModified(page.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(page.getEtag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(page.getBody());
+    }
+
+    @GetMapping("/feed")
+    public ResponseEntity<CursorSlice<JobListResponse>> getOpenJobsFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(jobService.getOpenJobsFeed(cursor, size));
     }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<JobListResponse>> searchJobs(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(jobService.searchOpenJobs(query, size));
+    }
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<TitleSuggestion>> autocompleteTitles(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(jobService.autocompleteTitles(query, size));
+    }
+
+    @GetMapping("/autocomplete/stats")
+    public ResponseEntity<TitleAutocompleteStats> getTitleAutocompleteStats() {
+        return ResponseEntity.ok(jobService.getTitleAutocompleteStats());
+    }
+
+    @GetMapping("/salaries")
+    public ResponseEntity<SalaryStatsResponse> getSalaryStats(
+            @RequestParam(required = false) List<JobType> type,
+            @RequestParam(required = false) List<String> location,
+            @RequestParam(required = false) List<UUID> companyId) {
+        return ResponseEntity.ok(jobService.getSalaryStats(type, location, companyId));
+    }
+
+    @GetMapping("/matches")
+    public ResponseEntity<List<JobMatchResponse>> getMatchingJobs(
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(jobService.getMatchingJobs(size));
+    }
+
+    @GetMapping("/{jobId}/similar")
+    public ResponseEntity<List<JobListResponse>> getSimilarJobs(
+            @PathVariable UUID jobId,
+            @RequestParam(defaultValue = "5") int size) {
+        return ResponseEntity.ok(jobService.getSimilarJobs(jobId, size));
+    }
+
+    @PostMapping("/{jobId}/views")
+    public ResponseEntity<Void> recordView(@PathVariable UUID jobId, HttpServletRequest request) {
+        jobService.recordView(jobId, request.getRemoteAddr() + "|" + request.getHeader("User-Agent"));
+        return ResponseEntity.accepted().build();
+    }
+
     @PatchMapping("/{jobId}/close")
     public ResponseEntity<String> closeJob(@PathVariable UUID jobId) {
 
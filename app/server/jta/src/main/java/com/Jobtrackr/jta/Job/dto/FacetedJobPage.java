@@ -0,0 +1,22 @@
+package com.Jobtrackr.jta.Job.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.Map;
+
+/**
+ * A page of open jobs with the facet counts for the whole filtered result. Serializes
+ * like any other {@link Page}, with an extra {@code facets} field.
+ */
+public class FacetedJobPage extends PageImpl<JobListResponse> {
+
+    private final Map<String, Map<String, Integer>> facets;
+
+    public FacetedJobPage(Page<JobListResponse> page, Map<String, Map<String, Integer>> facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public Map<String, Map<String, Integer>> getFacets() { return facets; }
+}
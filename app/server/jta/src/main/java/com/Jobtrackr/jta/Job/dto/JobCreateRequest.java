@@ -5,6 +5,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,6 +18,9 @@ public class JobCreateRequest {
     private String location;
     private Double salary;
     private JobType type;
+    private LocalDateTime publishAt;
+    private LocalDateTime expiresAt;
+    private List<String> skills;
 
 
 
@@ -0,0 +1,37 @@
+package com.Jobtrackr.jta.Job.dto;
+
+import java.util.List;
+
+public class JobImportResponse {
+
+    private final int received;
+    private final int imported;
+    private final int rejected;
+    private final List<RowError> errors;
+
+    public JobImportResponse(int received, int imported, int rejected, List<RowError> errors) {
+        this.received = received;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.errors = errors;
+    }
+
+    public int getReceived() { return received; }
+    public int getImported() { return imported; }
+    public int getRejected() { return rejected; }
+    public List<RowError> getErrors() { return errors; }
+
+    public static class RowError {
+
+        private final long row;
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() { return row; }
+        public String getMessage() { return message; }
+    }
+}
@@ -0,0 +1,21 @@
+package com.Jobtrackr.jta.Job.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class JobMatchResponse extends JobListResponse {
+    private int matchedSkillCount;
+    private int jobSkillCount;
+    private List<String> matchedSkills;
+
+    public JobMatchResponse(JobListResponse job, int matchedSkillCount, int jobSkillCount,
+                            List<String> matchedSkills) {
+        super(job.getId(), job.getTitle(), job.getLocation(), job.getSalary(),
+                job.getCompanyName(), job.getStatus(), job.getCreatedAt());
+        this.matchedSkillCount = matchedSkillCount;
+        this.jobSkillCount = jobSkillCount;
+        this.matchedSkills = matchedSkills;
+    }
+}
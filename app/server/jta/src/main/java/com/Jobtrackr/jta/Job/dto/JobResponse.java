@@ -7,6 +7,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Getter
@@ -21,5 +23,8 @@ public class JobResponse {
     private JobType type;
     private JobStatus status;
     private String companyName;
+    private LocalDateTime publishAt;
+    private LocalDateTime expiresAt;
+    private List<String> skills;
 
 }
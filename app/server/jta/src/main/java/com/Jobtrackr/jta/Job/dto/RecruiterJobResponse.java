@@ -0,0 +1,22 @@
+package com.Jobtrackr.jta.Job.dto;
+
+import com.Jobtrackr.jta.application.entity.ApplicationStatus;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+public class RecruiterJobResponse extends JobListResponse {
+    private long views;
+    private long uniqueViewers;
+    private Map<ApplicationStatus, Long> applications;
+
+    public RecruiterJobResponse(JobListResponse job, long views, long uniqueViewers,
+                                Map<ApplicationStatus, Long> applications) {
+        super(job.getId(), job.getTitle(), job.getLocation(), job.getSalary(),
+                job.getCompanyName(), job.getStatus(), job.getCreatedAt());
+        this.views = views;
+        this.uniqueViewers = uniqueViewers;
+        this.applications = applications;
+    }
+}
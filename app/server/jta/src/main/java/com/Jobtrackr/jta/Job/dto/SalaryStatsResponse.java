@@ -0,0 +1,32 @@
+package com.Jobtrackr.jta.Job.dto;
+
+import com.Jobtrackr.jta.Job.search.SalaryHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SalaryStatsResponse {
+
+    private static final double[] PERCENTILES = {0.10, 0.25, 0.50, 0.75, 0.90};
+
+    private final long count;
+    private final Double mean;
+    private final Map<String, Double> percentiles;
+    private final List<SalaryHistogram.Bucket> buckets;
+
+    public SalaryStatsResponse(SalaryHistogram histogram) {
+        this.count = histogram.getTotal();
+        this.mean = histogram.mean() != null ? Math.rint(histogram.mean()) : null;
+        this.percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put("p" + Math.round(percentile * 100), histogram.percentile(percentile));
+        }
+        this.buckets = histogram.buckets();
+    }
+
+    public long getCount() { return count; }
+    public Double getMean() { return mean; }
+    public Map<String, Double> getPercentiles() { return percentiles; }
+    public List<SalaryHistogram.Bucket> getBuckets() { return buckets; }
+}
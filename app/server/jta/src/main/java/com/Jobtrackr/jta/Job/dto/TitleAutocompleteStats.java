@@ -0,0 +1,13 @@
+package com.Jobtrackr.jta.Job.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TitleAutocompleteStats {
+    private int titles;
+    private int openJobs;
+    private int trieNodes;
+    private long estimatedBytes;
+}
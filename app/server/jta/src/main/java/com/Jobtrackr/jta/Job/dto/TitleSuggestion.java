@@ -0,0 +1,11 @@
+package com.Jobtrackr.jta.Job.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TitleSuggestion {
+    private String title;
+    private int openJobs;
+}
@@ -11,7 +11,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "jobs")
+@Table(name = "jobs",
+        indexes = {
+                @Index(name = "idx_jobs_status_created_at", columnList = "status, created_at, id"),
+                @Index(name = "idx_jobs_expires_at", columnList = "expires_at")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -28,6 +32,11 @@ public class Job {
 
     private String location;
 
+    private Integer locationId;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] skills;
+
     private Double salary;
 
     @Enumerated(EnumType.STRING)
@@ -38,11 +47,15 @@ public class Job {
 
     private LocalDateTime createdAt;
 
-    @ManyToOne
+    private LocalDateTime publishAt;
+
+    private LocalDateTime expiresAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id")
     private Company company;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "recruiter_id")
     private User recruiter;
 }
@@ -3,5 +3,6 @@ package com.Jobtrackr.jta.Job.entity;
 public enum JobStatus {
     OPEN,
     CLOSED,
-    PAUSED
+    PAUSED,
+    SCHEDULED
 }
@@ -0,0 +1,34 @@
+package com.Jobtrackr.jta.Job.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Running view totals for a job. Rows are written only by
+ * {@link com.Jobtrackr.jta.Job.views.JobViewTracker}'s batched upserts; {@code hll}
+ * holds the HyperLogLog registers that {@code uniqueViewers} is estimated from.
+ */
+@Entity
+@Table(name = "job_view_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+public class JobViewStats {
+
+    @Id
+    private UUID jobId;
+
+    private long views;
+
+    private long uniqueViewers;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] hll;
+
+    private LocalDateTime updatedAt;
+}
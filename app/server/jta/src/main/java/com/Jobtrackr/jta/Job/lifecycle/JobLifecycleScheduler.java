@@ -0,0 +1,227 @@
+package com.Jobtrackr.jta.Job.lifecycle;
+
+import com.Jobtrackr.jta.Job.entity.JobStatus;
+import com.Jobtrackr.jta.Job.repository.JobRepo;
+import com.Jobtrackr.jta.Job.repository.JobScheduleView;
+import com.Jobtrackr.jta.Job.search.OpenJobIndexer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+
+/**
+ * Publishes jobs at {@code publishAt} and closes them at {@code expiresAt}.
+ *
+ * Pending transitions live in a hierarchical timing wheel driven by one thread that
+ * sleeps until the next occupied bucket is due. A transition scheduled for a time that
+ * has already passed wakes it through an empty bucket queued as due now; otherwise it
+ * never wakes without work. Everything that comes due in the same tick is applied as
+ * one set-based UPDATE per transition, and the open-job indexes are told about the
+ * result. The pending set is rebuilt from the database on startup, so there is no
+ * periodic sweep of the jobs table.
+ */
+@Component
+public class JobLifecycleScheduler {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 60;
+    private static final long RETRY_DELAY_MILLIS = 30_000;
+    private static final int UPDATE_CHUNK_SIZE = 1000;
+
+    private final JobRepo jobRepository;
+    private final OpenJobIndexer openJobIndexer;
+
+    private final DelayQueue<TimerBucket<Transition>> queue = new DelayQueue<>();
+    private final TimingWheel<Transition> wheel =
+            new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis(), queue);
+    private final List<TimerEntry<Transition>> due = new ArrayList<>();
+    private final TimerBucket<Transition> wakeUp = new TimerBucket<>();
+    private final Map<UUID, TimerEntry<Transition>> pendingPublishes = new ConcurrentHashMap<>();
+    private final Map<UUID, TimerEntry<Transition>> pendingExpiries = new ConcurrentHashMap<>();
+
+    private Thread driver;
+
+    public JobLifecycleScheduler(JobRepo jobRepository, OpenJobIndexer openJobIndexer) {
+        this.jobRepository = jobRepository;
+        this.openJobIndexer = openJobIndexer;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (JobScheduleView job : jobRepository.findPendingTransitions(JobStatus.SCHEDULED, JobStatus.OPEN)) {
+            if (job.getStatus() == JobStatus.SCHEDULED && job.getPublishAt() != null) {
+                schedulePublish(job.getId(), job.getPublishAt());
+            }
+            if (job.getExpiresAt() != null) {
+                scheduleExpiry(job.getId(), job.getExpiresAt());
+            }
+        }
+
+        driver = new Thread(this::run, "job-lifecycle-scheduler");
+        driver.setDaemon(true);
+        driver.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (driver != null) {
+            driver.interrupt();
+        }
+    }
+
+    public void schedulePublish(UUID jobId, LocalDateTime publishAt) {
+        schedule(pendingPublishes, new Transition(jobId, true), toMillis(publishAt));
+    }
+
+    public void scheduleExpiry(UUID jobId, LocalDateTime expiresAt) {
+        schedule(pendingExpiries, new Transition(jobId, false), toMillis(expiresAt));
+    }
+
+    public void cancel(UUID jobId) {
+        TimerEntry<Transition> publish = pendingPublishes.remove(jobId);
+        if (publish != null) {
+            publish.cancel();
+        }
+        TimerEntry<Transition> expiry = pendingExpiries.remove(jobId);
+        if (expiry != null) {
+            expiry.cancel();
+        }
+    }
+
+    private void schedule(Map<UUID, TimerEntry<Transition>> pending, Transition transition, long expirationMillis) {
+        TimerEntry<Transition> entry = new TimerEntry<>(transition, expirationMillis);
+        TimerEntry<Transition> previous = pending.put(transition.jobId, entry);
+        if (previous != null) {
+            previous.cancel();
+        }
+        synchronized (wheel) {
+            if (!wheel.add(entry)) {
+                due.add(entry);
+                // Flushing the bucket resets its expiration, so it is queued at most once.
+                if (wakeUp.getExpiration() < 0) {
+                    wakeUp.setExpiration(System.currentTimeMillis());
+                    queue.offer(wakeUp);
+                }
+            }
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                TimerBucket<Transition> bucket = queue.take();
+                List<TimerEntry<Transition>> fired;
+                synchronized (wheel) {
+                    while (bucket != null) {
+                        wheel.advanceClock(bucket.getExpiration());
+                        bucket.flush(entry -> {
+                            if (!wheel.add(entry)) {
+                                due.add(entry);
+                            }
+                        });
+                        bucket = queue.poll();
+                    }
+                    fired = new ArrayList<>(due);
+                    due.clear();
+                }
+                if (!fired.isEmpty()) {
+                    apply(fired);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void apply(List<TimerEntry<Transition>> fired) {
+        List<TimerEntry<Transition>> publishes = new ArrayList<>();
+        List<TimerEntry<Transition>> expiries = new ArrayList<>();
+        for (TimerEntry<Transition> entry : fired) {
+            if (entry.isCancelled()) {
+                continue;
+            }
+            Transition transition = entry.getPayload();
+            if (transition.publish) {
+                publishes.add(entry);
+            } else {
+                expiries.add(entry);
+            }
+        }
+
+        for (int from = 0; from < publishes.size(); from += UPDATE_CHUNK_SIZE) {
+            List<TimerEntry<Transition>> chunk = publishes.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, publishes.size()));
+            List<UUID> ids = jobIds(chunk);
+            try {
+                jobRepository.updateStatus(ids, List.of(JobStatus.SCHEDULED), JobStatus.OPEN);
+                openJobIndexer.jobsOpened(jobRepository.findAllWithCompanyByIdInAndStatus(ids, JobStatus.OPEN));
+                complete(pendingPublishes, chunk);
+            } catch (RuntimeException e) {
+                System.err.println("Failed to publish scheduled jobs: " + e.getMessage());
+                retry(pendingPublishes, chunk);
+            }
+        }
+
+        for (int from = 0; from < expiries.size(); from += UPDATE_CHUNK_SIZE) {
+            List<TimerEntry<Transition>> chunk = expiries.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, expiries.size()));
+            List<UUID> ids = jobIds(chunk);
+            try {
+                jobRepository.updateStatus(ids, List.of(JobStatus.OPEN, JobStatus.SCHEDULED), JobStatus.CLOSED);
+                openJobIndexer.jobsClosed(ids);
+                complete(pendingExpiries, chunk);
+                // A job that expired before going live must not be published later.
+                for (UUID id : ids) {
+                    TimerEntry<Transition> publish = pendingPublishes.remove(id);
+                    if (publish != null) {
+                        publish.cancel();
+                    }
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Failed to expire jobs: " + e.getMessage());
+                retry(pendingExpiries, chunk);
+            }
+        }
+    }
+
+    private void complete(Map<UUID, TimerEntry<Transition>> pending, List<TimerEntry<Transition>> entries) {
+        for (TimerEntry<Transition> entry : entries) {
+            pending.remove(entry.getPayload().jobId, entry);
+        }
+    }
+
+    private void retry(Map<UUID, TimerEntry<Transition>> pending, List<TimerEntry<Transition>> entries) {
+        long retryAt = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+        for (TimerEntry<Transition> entry : entries) {
+            if (pending.get(entry.getPayload().jobId) == entry) {
+                schedule(pending, entry.getPayload(), retryAt);
+            }
+        }
+    }
+
+    private static List<UUID> jobIds(List<TimerEntry<Transition>> entries) {
+        return entries.stream().map(entry -> entry.getPayload().jobId).toList();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Transition {
+
+        private final UUID jobId;
+        private final boolean publish;
+
+        private Transition(UUID jobId, boolean publish) {
+            this.jobId = jobId;
+            this.publish = publish;
+        }
+    }
+}
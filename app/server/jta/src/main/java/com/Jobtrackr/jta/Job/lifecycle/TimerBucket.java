@@ -0,0 +1,54 @@
+package com.Jobtrackr.jta.Job.lifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * One slot of a {@link TimingWheel}. The bucket, not the entry, sits in the delay
+ * queue, so the queue holds at most one element per slot however many entries there are.
+ */
+final class TimerBucket<T> implements Delayed {
+
+    private final AtomicLong expiration = new AtomicLong(-1L);
+    private final List<TimerEntry<T>> entries = new ArrayList<>();
+
+    void add(TimerEntry<T> entry) {
+        entries.add(entry);
+    }
+
+    /**
+     * Returns true when the expiration changed, meaning the bucket must be (re)queued.
+     */
+    boolean setExpiration(long expirationMillis) {
+        return expiration.getAndSet(expirationMillis) != expirationMillis;
+    }
+
+    long getExpiration() {
+        return expiration.get();
+    }
+
+    void flush(Consumer<TimerEntry<T>> consumer) {
+        List<TimerEntry<T>> flushed = new ArrayList<>(entries);
+        entries.clear();
+        expiration.set(-1L);
+        for (TimerEntry<T> entry : flushed) {
+            if (!entry.isCancelled()) {
+                consumer.accept(entry);
+            }
+        }
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(Math.max(expiration.get() - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(expiration.get(), ((TimerBucket<?>) other).expiration.get());
+    }
+}
@@ -0,0 +1,21 @@
+package com.Jobtrackr.jta.Job.lifecycle;
+
+final class TimerEntry<T> {
+
+    private final T payload;
+    private final long expirationMillis;
+    private volatile boolean cancelled;
+
+    TimerEntry(T payload, long expirationMillis) {
+        this.payload = payload;
+        this.expirationMillis = expirationMillis;
+    }
+
+    T getPayload() { return payload; }
+    long getExpirationMillis() { return expirationMillis; }
+    boolean isCancelled() { return cancelled; }
+
+    void cancel() {
+        cancelled = true;
+    }
+}
@@ -0,0 +1,70 @@
+package com.Jobtrackr.jta.Job.lifecycle;
+
+import java.util.concurrent.DelayQueue;
+
+/**
+ * Hierarchical timing wheel. Each level has {@code wheelSize} buckets of {@code tickMillis};
+ * entries too far out go to a lazily created overflow level whose tick is this level's whole
+ * span, and cascade down as the clock reaches them. Adding an entry is O(1) and the clock
+ * only wakes up for buckets that actually hold entries.
+ *
+ * Not thread-safe: the owner serializes {@link #add} and {@link #advanceClock}.
+ */
+final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long interval;
+    private final TimerBucket<T>[] buckets;
+    private final DelayQueue<TimerBucket<T>> queue;
+    private long currentTime;
+    private TimingWheel<T> overflow;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int wheelSize, long startMillis, DelayQueue<TimerBucket<T>> queue) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.interval = tickMillis * wheelSize;
+        this.queue = queue;
+        this.currentTime = startMillis - (startMillis % tickMillis);
+        this.buckets = new TimerBucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new TimerBucket<>();
+        }
+    }
+
+    /**
+     * Returns false when the entry is already due; the caller must fire it.
+     */
+    boolean add(TimerEntry<T> entry) {
+        long expiration = entry.getExpirationMillis();
+        if (entry.isCancelled()) {
+            return true;
+        }
+        if (expiration < currentTime + tickMillis) {
+            return false;
+        }
+        if (expiration < currentTime + interval) {
+            long virtualId = expiration / tickMillis;
+            TimerBucket<T> bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.add(entry);
+            if (bucket.setExpiration(virtualId * tickMillis)) {
+                queue.offer(bucket);
+            }
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(interval, wheelSize, currentTime, queue);
+        }
+        return overflow.add(entry);
+    }
+
+    void advanceClock(long timeMillis) {
+        if (timeMillis >= currentTime + tickMillis) {
+            currentTime = timeMillis - (timeMillis % tickMillis);
+            if (overflow != null) {
+                overflow.advanceClock(currentTime);
+            }
+        }
+    }
+}
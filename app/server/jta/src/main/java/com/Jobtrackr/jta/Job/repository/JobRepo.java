@@ -1,16 +1,80 @@
 package com.Jobtrackr.jta.Job.repository;
 
+import com.Jobtrackr.jta.Job.dto.JobListResponse;
 import com.Jobtrackr.jta.Job.entity.Job;
 import com.Jobtrackr.jta.Job.entity.JobStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface JobRepo extends JpaRepository<Job, UUID> {
     List<Job> findByStatus(JobStatus status);
     Page<Job> findByStatus(JobStatus status, Pageable pageable);
     Page<Job> findByRecruiterId(UUID recruiterId, Pageable pageable);
-}
\ No newline at end of file
+
+    @Query("select j from Job j left join fetch j.company where j.status = :status order by j.createdAt")
+    List<Job> findAllWithCompanyByStatus(@Param("status") JobStatus status);
+
+    @Query(value = "select new com.Jobtrackr.jta.Job.dto.JobListResponse(" +
+            "j.id, j.title, j.location, j.salary, c.name, j.createdAt) " +
+            "from Job j join j.company c where j.status = :status",
+            countQuery = "select count(j) from Job j where j.status = :status")
+    Page<JobListResponse> findListRowsByStatus(@Param("status") JobStatus status, Pageable pageable);
+
+    @Query(value = "select new com.Jobtrackr.jta.Job.dto.JobListResponse(" +
+            "j.id, j.title, j.location, j.salary, c.name, j.status, j.createdAt) " +
+            "from Job j join j.company c where j.recruiter.id = :recruiterId",
+            countQuery = "select count(j) from Job j where j.recruiter.id = :recruiterId")
+    Page<JobListResponse> findListRowsByRecruiterId(@Param("recruiterId") UUID recruiterId, Pageable pageable);
+
+    @Query(value = "select new com.Jobtrackr.jta.Job.dto.JobListResponse(" +
+            "j.id, j.title, j.location, j.salary, coalesce(c.name, ''), j.status, j.createdAt) " +
+            "from Job j left join j.company c",
+            countQuery = "select count(j) from Job j")
+    Page<JobListResponse> findAllListRows(Pageable pageable);
+
+    @Query("select new com.Jobtrackr.jta.Job.dto.JobListResponse(" +
+            "j.id, j.title, j.location, j.salary, c.name, j.createdAt) " +
+            "from Job j join j.company c where j.status = :status " +
+            "order by j.createdAt desc, j.id desc")
+    List<JobListResponse> findFeedByStatus(@Param("status") JobStatus status, Limit limit);
+
+    @Query("select new com.Jobtrackr.jta.Job.dto.JobListResponse(" +
+            "j.id, j.title, j.location, j.salary, c.name, j.createdAt) " +
+            "from Job j join j.company c where j.status = :status " +
+            "and (j.createdAt < :createdAt or (j.createdAt = :createdAt and j.id < :id)) " +
+            "order by j.createdAt desc, j.id desc")
+    List<JobListResponse> findFeedByStatusAfter(@Param("status") JobStatus status,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") UUID id,
+                                    Limit limit);
+
+    @Query("select j from Job j left join fetch j.company where j.id in :ids and j.status = :status")
+    List<Job> findAllWithCompanyByIdInAndStatus(@Param("ids") Collection<UUID> ids, @Param("status") JobStatus status);
+
+    @Query("select j.id as id, j.status as status, j.publishAt as publishAt, j.expiresAt as expiresAt " +
+            "from Job j where j.status = :scheduled or (j.status = :open and j.expiresAt is not null)")
+    List<JobScheduleView> findPendingTransitions(@Param("scheduled") JobStatus scheduled,
+                                                 @Param("open") JobStatus open);
+
+    @Query("select j.recruiter.id from Job j where j.id = :id")
+    Optional<UUID> findRecruiterIdById(@Param("id") UUID id);
+
+    @Modifying
+    @Transactional
+    @Query("update Job j set j.status = :to where j.id in :ids and j.status in :from")
+    int updateStatus(@Param("ids") Collection<UUID> ids,
+                     @Param("from") Collection<JobStatus> from,
+                     @Param("to") JobStatus to);
+}
@@ -0,0 +1,13 @@
+package com.Jobtrackr.jta.Job.repository;
+
+import com.Jobtrackr.jta.Job.entity.JobStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface JobScheduleView {
+    UUID getId();
+    JobStatus getStatus();
+    LocalDateTime getPublishAt();
+    LocalDateTime getExpiresAt();
+}
@@ -0,0 +1,9 @@
+package com.Jobtrackr.jta.Job.repository;
+
+import java.util.UUID;
+
+public interface JobViewCounts {
+    UUID getJobId();
+    long getViews();
+    long getUniqueViewers();
+}
@@ -0,0 +1,20 @@
+package com.Jobtrackr.jta.Job.repository;
+
+import com.Jobtrackr.jta.Job.entity.JobViewStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface JobViewStatsRepo extends JpaRepository<JobViewStats, UUID> {
+
+    @Query("""
+            select s.jobId as jobId, s.views as views, s.uniqueViewers as uniqueViewers
+            from JobViewStats s
+            where s.jobId in :jobIds
+            """)
+    List<JobViewCounts> findCountsByJobIdIn(@Param("jobIds") Collection<UUID> jobIds);
+}
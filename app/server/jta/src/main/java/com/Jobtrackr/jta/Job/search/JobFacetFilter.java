@@ -0,0 +1,39 @@
+package com.Jobtrackr.jta.Job.search;
+
+import com.Jobtrackr.jta.Job.entity.JobType;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Selected facet values. Values within one facet are OR-ed, facets are AND-ed.
+ */
+public class JobFacetFilter {
+
+    private final List<JobType> types;
+    private final List<String> locations;
+    private final List<SalaryBand> salaryBands;
+
+    public JobFacetFilter(List<JobType> types, List<String> locations, List<SalaryBand> salaryBands) {
+        this.types = types != null ? types : List.of();
+        this.locations = locations != null ? locations : List.of();
+        this.salaryBands = salaryBands != null ? salaryBands : List.of();
+    }
+
+    public List<JobType> getTypes() { return types; }
+    public List<String> getLocations() { return locations; }
+    public List<SalaryBand> getSalaryBands() { return salaryBands; }
+
+    /**
+     * Canonical form of the selection, independent of parameter order and case.
+     */
+    public String cacheKey() {
+        return types.stream().map(Enum::name).sorted().toList() + "|"
+                + locations.stream().map(l -> l.trim().toLowerCase(Locale.ROOT)).sorted().toList() + "|"
+                + salaryBands.stream().map(Enum::name).sorted().toList();
+    }
+
+    public boolean isEmpty() {
+        return types.isEmpty() && locations.isEmpty() && salaryBands.isEmpty();
+    }
+}
@@ -0,0 +1,406 @@
+package com.Jobtrackr.jta.Job.search;
+
+import com.Jobtrackr.jta.Job.dto.JobListResponse;
+import com.Jobtrackr.jta.Job.entity.Job;
+import com.Jobtrackr.jta.Job.entity.JobType;
+import com.Jobtrackr.jta.location.service.LocationDictionary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Bitset facet index over open jobs. Each facet value owns a {@link BitSet} over
+ * dense job ordinals, so filtering is a bitset AND and a facet count is a cardinality.
+ *
+ * Ordinals follow creation order, which lets the default newest-first listing walk
+ * the result bits backwards without sorting. A job opened out of that order, such as
+ * a scheduled job being published, is appended and the ordinals are then renumbered
+ * by creation time. Locations are keyed by their {@link LocationDictionary} id.
+ */
+@Component
+public class JobFacetIndex implements OpenJobListener {
+
+    public static final String TYPE_FACET = "type";
+    public static final String LOCATION_FACET = "location";
+    public static final String SALARY_BAND_FACET = "salaryBand";
+
+    private static final int MIN_COMPACTION_GARBAGE = 1024;
+
+    private final LocationDictionary locationDictionary;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final Map<JobType, BitSet> byType = new EnumMap<>(JobType.class);
+    private final Map<Integer, BitSet> byLocation = new HashMap<>();
+    private final Map<SalaryBand, BitSet> bySalaryBand = new EnumMap<>(SalaryBand.class);
+
+    private JobListResponse[] rows = new JobListResponse[256];
+    private int[] docLocations = new int[256];
+    private int maxDoc;
+    private LocalDateTime newestCreatedAt;
+    private boolean unordered;
+
+    public JobFacetIndex(LocationDictionary locationDictionary) {
+        this.locationDictionary = locationDictionary;
+    }
+
+    @Override
+    public void rebuild(List<Job> openJobs) {
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            live.clear();
+            byType.clear();
+            byLocation.clear();
+            bySalaryBand.clear();
+            Arrays.fill(rows, null);
+            maxDoc = 0;
+            newestCreatedAt = null;
+            unordered = false;
+            for (Job job : openJobs) {
+                addLocked(job);
+            }
+            if (unordered) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onJobOpened(Job job) {
+        lock.writeLock().lock();
+        try {
+            addLocked(job);
+            if (unordered) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onJobsOpened(List<Job> jobs) {
+        lock.writeLock().lock();
+        try {
+            for (Job job : jobs) {
+                addLocked(job);
+            }
+            // Renumbered once for the whole batch.
+            if (unordered) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onJobClosed(UUID jobId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = ordinals.remove(jobId);
+            if (doc == null) {
+                return;
+            }
+            clearEverywhere(doc);
+            rows[doc] = null;
+            if (maxDoc - ordinals.size() > Math.max(MIN_COMPACTION_GARBAGE, ordinals.size())) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts follow multi-select semantics: the counts of one facet are computed
+     * with the filters of every other facet applied, but not its own.
+     */
+    public Map<String, Map<String, Integer>> facets(JobFacetFilter filter) {
+        lock.readLock().lock();
+        try {
+            BitSet typeMatch = union(byType, filter.getTypes());
+            BitSet locationMatch = locationMatch(filter.getLocations());
+            BitSet salaryMatch = union(bySalaryBand, filter.getSalaryBands());
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(TYPE_FACET, counts(byType, and(live, locationMatch, salaryMatch), null));
+            facets.put(LOCATION_FACET, counts(byLocation, and(live, typeMatch, salaryMatch), locationDictionary::name));
+            facets.put(SALARY_BAND_FACET, counts(bySalaryBand, and(live, typeMatch, locationMatch), null));
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pages through the filtered open jobs. Supports sorting by {@code createdAt} and
+     * {@code salary}; anything else falls back to newest first.
+     */
+    public Page<JobListResponse> find(JobFacetFilter filter, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = and(live,
+                    union(byType, filter.getTypes()),
+                    locationMatch(filter.getLocations()),
+                    union(bySalaryBand, filter.getSalaryBands()));
+
+            int total = matches.cardinality();
+            long offset = pageable.getOffset();
+            List<JobListResponse> content = new ArrayList<>(pageable.getPageSize());
+            if (offset >= total) {
+                return new PageImpl<>(content, pageable, total);
+            }
+
+            Sort.Order salaryOrder = pageable.getSort().getOrderFor("salary");
+            Sort.Order createdAtOrder = pageable.getSort().getOrderFor("createdAt");
+            if (salaryOrder != null) {
+                collectBySalary(matches, salaryOrder.isAscending(), offset, pageable.getPageSize(), content);
+            } else if (createdAtOrder != null && createdAtOrder.isAscending()) {
+                int skipped = 0;
+                for (int doc = matches.nextSetBit(0); doc >= 0 && content.size() < pageable.getPageSize();
+                     doc = matches.nextSetBit(doc + 1)) {
+                    if (skipped++ >= offset) {
+                        content.add(rows[doc]);
+                    }
+                }
+            } else {
+                int skipped = 0;
+                for (int doc = matches.previousSetBit(maxDoc - 1); doc >= 0 && content.size() < pageable.getPageSize();
+                     doc = matches.previousSetBit(doc - 1)) {
+                    if (skipped++ >= offset) {
+                        content.add(rows[doc]);
+                    }
+                }
+            }
+            return new PageImpl<>(content, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collectBySalary(BitSet matches, boolean ascending, long offset, int pageSize,
+                                 List<JobListResponse> content) {
+        Integer[] docs = matches.stream().boxed().toArray(Integer[]::new);
+        Comparator<Double> salaryOrder = ascending
+                ? Comparator.<Double>naturalOrder()
+                : Comparator.<Double>reverseOrder();
+        Arrays.sort(docs, Comparator.comparing((Integer doc) -> rows[doc].getSalary(),
+                Comparator.nullsLast(salaryOrder)));
+        for (int i = (int) offset; i < docs.length && content.size() < pageSize; i++) {
+            content.add(rows[docs[i]]);
+        }
+    }
+
+    private void addLocked(Job job) {
+        Integer existing = ordinals.remove(job.getId());
+        if (existing != null) {
+            clearEverywhere(existing);
+            rows[existing] = null;
+        }
+
+        if (maxDoc == rows.length) {
+            rows = Arrays.copyOf(rows, rows.length * 2);
+            docLocations = Arrays.copyOf(docLocations, rows.length);
+        }
+        int doc = maxDoc++;
+        rows[doc] = new JobListResponse(
+                job.getId(),
+                job.getTitle(),
+                job.getLocation(),
+                job.getSalary(),
+                job.getCompany() != null ? job.getCompany().getName() : "",
+                job.getCreatedAt()
+        );
+        ordinals.put(job.getId(), doc);
+        live.set(doc);
+        LocalDateTime createdAt = job.getCreatedAt();
+        if (createdAt != null) {
+            if (newestCreatedAt != null && createdAt.isBefore(newestCreatedAt)) {
+                unordered = true;
+            } else {
+                newestCreatedAt = createdAt;
+            }
+        }
+
+        if (job.getType() != null) {
+            byType.computeIfAbsent(job.getType(), t -> new BitSet()).set(doc);
+        }
+        Integer locationId = job.getLocationId();
+        docLocations[doc] = locationId != null ? locationId : -1;
+        if (locationId != null) {
+            byLocation.computeIfAbsent(locationId, l -> new BitSet()).set(doc);
+        }
+        SalaryBand band = SalaryBand.of(job.getSalary());
+        if (band != null) {
+            bySalaryBand.computeIfAbsent(band, b -> new BitSet()).set(doc);
+        }
+    }
+
+    private void clearEverywhere(int doc) {
+        live.clear(doc);
+        byType.values().forEach(bits -> bits.clear(doc));
+        bySalaryBand.values().forEach(bits -> bits.clear(doc));
+        int locationId = docLocations[doc];
+        if (locationId >= 0) {
+            BitSet bits = byLocation.get(locationId);
+            bits.clear(doc);
+            if (bits.isEmpty()) {
+                byLocation.remove(locationId);
+            }
+        }
+    }
+
+    /**
+     * Renumbers the live jobs densely, dropping closed ones, and restores creation order
+     * if a job was opened out of it.
+     */
+    private void compact() {
+        Integer[] order = live.stream().boxed().toArray(Integer[]::new);
+        if (unordered) {
+            // Stable, so jobs created at the same time keep their relative order.
+            Arrays.sort(order, Comparator.comparing((Integer doc) -> rows[doc].getCreatedAt(),
+                    Comparator.nullsFirst(Comparator.naturalOrder())));
+        }
+        int[] remap = new int[maxDoc];
+        Arrays.fill(remap, -1);
+        JobListResponse[] newRows = new JobListResponse[rows.length];
+        int[] newLocations = new int[docLocations.length];
+        for (int next = 0; next < order.length; next++) {
+            int doc = order[next];
+            remap[doc] = next;
+            newRows[next] = rows[doc];
+            newLocations[next] = docLocations[doc];
+        }
+        rows = newRows;
+        docLocations = newLocations;
+
+        remapAll(byType, remap);
+        remapAll(byLocation, remap);
+        remapAll(bySalaryBand, remap);
+        ordinals.replaceAll((id, doc) -> remap[doc]);
+        live.clear();
+        live.set(0, order.length);
+        maxDoc = order.length;
+        newestCreatedAt = null;
+        for (int doc = maxDoc - 1; doc >= 0 && newestCreatedAt == null; doc--) {
+            newestCreatedAt = rows[doc].getCreatedAt();
+        }
+        unordered = false;
+    }
+
+    private static <K> void remapAll(Map<K, BitSet> facet, int[] remap) {
+        facet.replaceAll((value, bits) -> {
+            BitSet remapped = new BitSet();
+            bits.stream().forEach(doc -> remapped.set(remap[doc]));
+            return remapped;
+        });
+    }
+
+    /**
+     * Returns null when nothing is selected, meaning "no restriction".
+     */
+    private static <K> BitSet union(Map<K, BitSet> facet, List<K> selected) {
+        if (selected.isEmpty()) {
+            return null;
+        }
+        BitSet result = new BitSet();
+        for (K value : selected) {
+            BitSet bits = facet.get(value);
+            if (bits != null) {
+                result.or(bits);
+            }
+        }
+        return result;
+    }
+
+    private static BitSet and(BitSet base, BitSet... restrictions) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet restriction : restrictions) {
+            if (restriction != null) {
+                result.and(restriction);
+            }
+        }
+        return result;
+    }
+
+    private static <K> Map<String, Integer> counts(Map<K, BitSet> facet, BitSet scope, Function<K, String> labels) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>();
+        for (Map.Entry<K, BitSet> entry : facet.entrySet()) {
+            BitSet bits = (BitSet) entry.getValue().clone();
+            bits.and(scope);
+            int count = bits.cardinality();
+            if (count > 0) {
+                String label = labels != null ? labels.apply(entry.getKey()) : entry.getKey().toString();
+                entries.add(Map.entry(label, count));
+            }
+        }
+        if (labels != null) {
+            entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        }
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        entries.forEach(entry -> counts.put(entry.getKey(), entry.getValue()));
+        return counts;
+    }
+
+    /**
+     * Like {@link #union}, but unknown locations resolve to nothing, so selecting only
+     * unknown ones matches no job rather than every job.
+     */
+    private BitSet locationMatch(List<String> locations) {
+        if (locations.isEmpty()) {
+            return null;
+        }
+        List<Integer> ids = locations.stream()
+                .map(locationDictionary::lookup)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        BitSet match = union(byLocation, ids);
+        return match != null ? match : new BitSet();
+    }
+
+    public boolean isOpen(UUID jobId) {
+        lock.readLock().lock();
+        try {
+            return ordinals.containsKey(jobId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of open jobs in the location; used to rank location suggestions.
+     */
+    public int openJobCount(int locationId) {
+        lock.readLock().lock();
+        try {
+            BitSet bits = byLocation.get(locationId);
+            return bits != null ? bits.cardinality() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.Jobtrackr.jta.Job.search;
+
+import com.Jobtrackr.jta.Job.dto.JobListResponse;
+import com.Jobtrackr.jta.Job.entity.Job;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over open jobs, ranked with BM25.
+ *
+ * Every open job gets a dense ordinal; postings are parallel primitive arrays of
+ * ordinals and term frequencies, appended in ordinal order. Closed jobs are
+ * tombstoned and the arrays are compacted once dead ordinals outnumber live ones.
+ * The list row of each job is kept alongside, so queries never touch the database.
+ */
+@Component
+public class JobSearchIndex implements OpenJobListener {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int TITLE_BOOST = 2;
+    private static final int MIN_COMPACTION_GARBAGE = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final BitSet live = new BitSet();
+
+    private JobListResponse[] rows = new JobListResponse[256];
+    private int[] docLengths = new int[256];
+    private int[][] docTerms = new int[256][];
+    private int maxDoc;
+    private int liveDocs;
+    private long liveLength;
+
+    @Override
+    public void rebuild(List<Job> openJobs) {
+        lock.writeLock().lock();
+        try {
+            termIds.clear();
+            postings.clear();
+            ordinals.clear();
+            live.clear();
+            maxDoc = 0;
+            liveDocs = 0;
+            liveLength = 0;
+            for (Job job : openJobs) {
+                addLocked(job);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onJobOpened(Job job) {
+        lock.writeLock().lock();
+        try {
+            addLocked(job);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onJobClosed(UUID jobId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(jobId);
+            if (maxDoc - liveDocs > Math.max(MIN_COMPACTION_GARBAGE, liveDocs)) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<JobListResponse> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(JobTextAnalyzer.terms(query)));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return List.of();
+            }
+
+            float avgDocLength = (float) liveLength / liveDocs;
+            float[] scores = new float[maxDoc];
+            BitSet hits = new BitSet(maxDoc);
+
+            for (String term : queryTerms) {
+                Integer termId = termIds.get(term);
+                if (termId == null) {
+                    continue;
+                }
+                Postings termPostings = postings.get(termId);
+                if (termPostings.liveDocFreq == 0) {
+                    continue;
+                }
+
+                float idf = (float) Math.log(1 + (liveDocs - termPostings.liveDocFreq + 0.5)
+                        / (termPostings.liveDocFreq + 0.5));
+                int[] docs = termPostings.docs;
+                int[] freqs = termPostings.freqs;
+                for (int i = 0; i < termPostings.size; i++) {
+                    int doc = docs[i];
+                    if (!live.get(doc)) {
+                        continue;
+                    }
+                    int tf = freqs[i];
+                    float norm = K1 * (1 - B + B * docLengths[doc] / avgDocLength);
+                    scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+                    hits.set(doc);
+                }
+            }
+
+            int[] top = topDocs(hits, scores, limit);
+            List<JobListResponse> results = new ArrayList<>(top.length);
+            for (int doc : top) {
+                results.add(rows[doc]);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(Job job) {
+        if (ordinals.containsKey(job.getId())) {
+            removeLocked(job.getId());
+        }
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = addField(frequencies, job.getTitle(), TITLE_BOOST)
+                + addField(frequencies, job.getDescription(), 1)
+                + addField(frequencies, job.getLocation(), 1)
+                + addField(frequencies, job.getCompany() != null ? job.getCompany().getName() : null, 1);
+
+        ensureCapacity(maxDoc + 1);
+        int doc = maxDoc++;
+        int[] terms = new int[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            int termId = termIds.computeIfAbsent(entry.getKey(), term -> {
+                postings.add(new Postings());
+                return postings.size() - 1;
+            });
+            postings.get(termId).add(doc, entry.getValue());
+            terms[i++] = termId;
+        }
+
+        rows[doc] = new JobListResponse(
+                job.getId(),
+                job.getTitle(),
+                job.getLocation(),
+                job.getSalary(),
+                job.getCompany() != null ? job.getCompany().getName() : "",
+                job.getCreatedAt()
+        );
+        docLengths[doc] = length;
+        docTerms[doc] = terms;
+        ordinals.put(job.getId(), doc);
+        live.set(doc);
+        liveDocs++;
+        liveLength += length;
+    }
+
+    private void removeLocked(UUID jobId) {
+        Integer doc = ordinals.remove(jobId);
+        if (doc == null) {
+            return;
+        }
+        for (int termId : docTerms[doc]) {
+            postings.get(termId).liveDocFreq--;
+        }
+        live.clear(doc);
+        liveDocs--;
+        liveLength -= docLengths[doc];
+        rows[doc] = null;
+        docTerms[doc] = null;
+    }
+
+    private void compact() {
+        int[] remap = new int[maxDoc];
+        int next = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (live.get(doc)) {
+                remap[doc] = next;
+                rows[next] = rows[doc];
+                docLengths[next] = docLengths[doc];
+                docTerms[next] = docTerms[doc];
+                next++;
+            } else {
+                remap[doc] = -1;
+            }
+        }
+        Arrays.fill(rows, next, maxDoc, null);
+        Arrays.fill(docTerms, next, maxDoc, null);
+
+        for (Postings termPostings : postings) {
+            termPostings.remap(remap);
+        }
+        ordinals.replaceAll((id, doc) -> remap[doc]);
+        live.clear();
+        live.set(0, next);
+        maxDoc = next;
+    }
+
+    private int addField(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> terms = JobTextAnalyzer.terms(text);
+        for (String term : terms) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= rows.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, rows.length * 2);
+        rows = Arrays.copyOf(rows, newCapacity);
+        docLengths = Arrays.copyOf(docLengths, newCapacity);
+        docTerms = Arrays.copyOf(docTerms, newCapacity);
+    }
+
+    /**
+     * Selects the best {@code limit} hits with a bounded min-heap; ties go to the newer job.
+     */
+    private static int[] topDocs(BitSet hits, float[] scores, int limit) {
+        int[] heap = new int[Math.min(limit, hits.cardinality())];
+        int size = 0;
+        for (int doc = hits.nextSetBit(0); doc >= 0; doc = hits.nextSetBit(doc + 1)) {
+            if (size < heap.length) {
+                heap[size++] = doc;
+                siftUp(heap, size - 1, scores);
+            } else if (heap.length > 0 && better(doc, heap[0], scores)) {
+                heap[0] = doc;
+                siftDown(heap, size, scores);
+            }
+        }
+
+        int[] sorted = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[i] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, scores);
+        }
+        return sorted;
+    }
+
+    private static boolean better(int a, int b, float[] scores) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a > b);
+    }
+
+    private static void siftUp(int[] heap, int index, float[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], heap[index], scores)) {
+                break;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int worst = right < size && better(heap[left], heap[right], scores) ? right : left;
+            if (!better(heap[index], heap[worst], scores)) {
+                return;
+            }
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+        private int liveDocFreq;
+
+        private void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+            liveDocFreq++;
+        }
+
+        private void remap(int[] remap) {
+            int next = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[next] = doc;
+                    freqs[next] = freqs[i];
+                    next++;
+                }
+            }
+            size = next;
+            if (docs.length > 4 && size < docs.length / 4) {
+                docs = Arrays.copyOf(docs, Math.max(4, size * 2));
+                freqs = Arrays.copyOf(freqs, Math.max(4, size * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.Jobtrackr.jta.Job.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits job text into lower-cased search terms. Shared by indexing and querying
+ * so both sides agree on what a term is.
+ */
+public final class JobTextAnalyzer {
+
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is",
+            "it", "of", "on", "or", "our", "the", "to", "we", "will", "with", "you", "your"
+    );
+
+    private JobTextAnalyzer() {
+    }
+
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, String term) {
+        if (term.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(term)) {
+            terms.add(term);
+        }
+    }
+}
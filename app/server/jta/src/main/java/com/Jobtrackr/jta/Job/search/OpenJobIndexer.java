@@ -0,0 +1,76 @@
+package com.Jobtrackr.jta.Job.search;
+
+import com.Jobtrackr.jta.Job.entity.Job;
+import com.Jobtrackr.jta.Job.entity.JobStatus;
+import com.Jobtrackr.jta.Job.repository.JobRepo;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the open jobs once at startup for all {@link OpenJobListener}s and fans
+ * out every subsequent open/close to them.
+ */
+@Component
+public class OpenJobIndexer {
+
+    private final JobRepo jobRepository;
+    private final List<OpenJobListener> listeners;
+    private final AtomicLong version = new AtomicLong();
+
+    public OpenJobIndexer(JobRepo jobRepository, List<OpenJobListener> listeners) {
+        this.jobRepository = jobRepository;
+        this.listeners = listeners;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        List<Job> openJobs = jobRepository.findAllWithCompanyByStatus(JobStatus.OPEN);
+        for (OpenJobListener listener : listeners) {
+            listener.rebuild(openJobs);
+        }
+        version.incrementAndGet();
+    }
+
+    public void jobOpened(Job job) {
+        for (OpenJobListener listener : listeners) {
+            listener.onJobOpened(job);
+        }
+        version.incrementAndGet();
+    }
+
+    public void jobsOpened(List<Job> jobs) {
+        for (OpenJobListener listener : listeners) {
+            listener.onJobsOpened(jobs);
+        }
+        version.incrementAndGet();
+    }
+
+    public void jobClosed(UUID jobId) {
+        for (OpenJobListener listener : listeners) {
+            listener.onJobClosed(jobId);
+        }
+        version.incrementAndGet();
+    }
+
+    public void jobsClosed(List<UUID> jobIds) {
+        for (OpenJobListener listener : listeners) {
+            for (UUID jobId : jobIds) {
+                listener.onJobClosed(jobId);
+            }
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Incremented after every change to the open set has reached all listeners.
+     * Anything derived from the open set is current only while this stays the same.
+     */
+    public long version() {
+        return version.get();
+    }
+}
@@ -0,0 +1,29 @@
+package com.Jobtrackr.jta.Job.search;
+
+import com.Jobtrackr.jta.Job.entity.Job;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An in-memory structure derived from the set of open jobs. {@link OpenJobIndexer}
+ * seeds every listener at startup and forwards each change to the open set.
+ */
+public interface OpenJobListener {
+
+    /**
+     * Replaces all state with the given open jobs, oldest first.
+     */
+    void rebuild(List<Job> openJobs);
+
+    void onJobOpened(Job job);
+
+    /**
+     * Several jobs opened at once, for example scheduled ones published together.
+     */
+    default void onJobsOpened(List<Job> jobs) {
+        jobs.forEach(this::onJobOpened);
+    }
+
+    void onJobClosed(UUID jobId);
+}
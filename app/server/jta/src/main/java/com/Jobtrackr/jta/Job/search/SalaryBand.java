@@ -0,0 +1,31 @@
+package com.Jobtrackr.jta.Job.search;
+
+public enum SalaryBand {
+    UNDER_50K(0, 50_000),
+    FROM_50K_TO_100K(50_000, 100_000),
+    FROM_100K_TO_150K(100_000, 150_000),
+    OVER_150K(150_000, Double.MAX_VALUE);
+
+    private final double min;
+    private final double max;
+
+    SalaryBand(double min, double max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Returns null for jobs without a salary; they match no band.
+     */
+    public static SalaryBand of(Double salary) {
+        if (salary == null) {
+            return null;
+        }
+        for (SalaryBand band : values()) {
+            if (salary >= band.min && salary < band.max) {
+                return band;
+            }
+        }
+        return null;
+    }
+}
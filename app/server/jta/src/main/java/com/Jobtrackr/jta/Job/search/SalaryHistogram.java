@@ -0,0 +1,131 @@
+package com.Jobtrackr.jta.Job.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-bucket salary histogram. Every histogram uses the same bucket boundaries, so
+ * two histograms merge by adding their counts and a value can be removed as cheaply
+ * as it was added. Percentiles are interpolated linearly inside a bucket.
+ */
+public final class SalaryHistogram {
+
+    public static final int BUCKET_WIDTH = 5_000;
+    public static final int BUCKETS = 100;
+
+    private int[] counts = new int[8];
+    private long total;
+    private double sum;
+
+    public void add(double salary) {
+        int bucket = bucketOf(salary);
+        if (bucket >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.min(BUCKETS + 1, Math.max(bucket + 1, counts.length * 2)));
+        }
+        counts[bucket]++;
+        total++;
+        sum += salary;
+    }
+
+    public void remove(double salary) {
+        int bucket = bucketOf(salary);
+        counts[bucket]--;
+        total--;
+        sum -= salary;
+    }
+
+    public void merge(SalaryHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        sum += other.sum;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Double mean() {
+        return total == 0 ? null : sum / total;
+    }
+
+    /**
+     * Returns null for an empty histogram. Values in the open-ended top bucket are
+     * reported as its lower bound.
+     */
+    public Double percentile(double quantile) {
+        if (total == 0) {
+            return null;
+        }
+        double target = quantile * total;
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            if (seen + counts[i] >= target) {
+                if (i == BUCKETS) {
+                    return (double) BUCKETS * BUCKET_WIDTH;
+                }
+                double within = (target - seen) / counts[i];
+                return Math.rint((i + within) * BUCKET_WIDTH);
+            }
+            seen += counts[i];
+        }
+        return (double) lastBucket() * BUCKET_WIDTH;
+    }
+
+    /**
+     * Non-empty buckets as {@code [min, max, count]}; {@code max} is null for the top bucket.
+     */
+    public List<Bucket> buckets() {
+        List<Bucket> buckets = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                buckets.add(new Bucket(
+                        (long) i * BUCKET_WIDTH,
+                        i == BUCKETS ? null : (long) (i + 1) * BUCKET_WIDTH,
+                        counts[i]));
+            }
+        }
+        return buckets;
+    }
+
+    private int lastBucket() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static int bucketOf(double salary) {
+        if (salary < 0) {
+            return 0;
+        }
+        return (int) Math.min(BUCKETS, (long) (salary / BUCKET_WIDTH));
+    }
+
+    public static class Bucket {
+
+        private final long min;
+        private final Long max;
+        private final int count;
+
+        public Bucket(long min, Long max, int count) {
+            this.min = min;
+            this.max = max;
+            this.count = count;
+        }
+
+        public long getMin() { return min; }
+        public Long getMax() { return max; }
+        public int getCount() { return count; }
+    }
+}
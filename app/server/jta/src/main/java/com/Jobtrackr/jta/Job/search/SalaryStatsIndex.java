@@ -0,0 +1,189 @@
+package com.Jobtrackr.jta.Job.search;
+
+import com.Jobtrackr.jta.Job.entity.Job;
+import com.Jobtrackr.jta.Job.entity.JobType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Salary histograms of the open jobs, kept current as jobs open and close.
+ *
+ * Each salaried job is counted in one histogram per subset of (type, location,
+ * company), so a group like "full time in Berlin" or "anything at this company" is a
+ * single lookup. Selecting several values of a dimension merges the matching groups,
+ * which are disjoint because a job has exactly one value per dimension.
+ */
+@Component
+public class SalaryStatsIndex implements OpenJobListener {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<GroupKey, SalaryHistogram> histograms = new HashMap<>();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+
+    @Override
+    public void rebuild(List<Job> openJobs) {
+        lock.writeLock().lock();
+        try {
+            histograms.clear();
+            entries.clear();
+            for (Job job : openJobs) {
+                addLocked(job);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onJobOpened(Job job) {
+        lock.writeLock().lock();
+        try {
+            addLocked(job);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onJobClosed(UUID jobId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(jobId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empty lists mean "any value". The work depends only on how many values are
+     * selected, never on how many jobs are open.
+     */
+    public SalaryHistogram histogram(List<JobType> types, List<Integer> locationIds, List<UUID> companyIds) {
+        List<JobType> typeKeys = anyIfEmpty(types.stream().distinct().toList());
+        List<Integer> locationKeys = anyIfEmpty(locationIds.stream().distinct().toList());
+        List<UUID> companyKeys = anyIfEmpty(companyIds.stream().distinct().toList());
+
+        SalaryHistogram merged = new SalaryHistogram();
+        lock.readLock().lock();
+        try {
+            for (JobType type : typeKeys) {
+                for (Integer location : locationKeys) {
+                    for (UUID companyId : companyKeys) {
+                        SalaryHistogram histogram = histograms.get(new GroupKey(type, location, companyId));
+                        if (histogram != null) {
+                            merged.merge(histogram);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return merged;
+    }
+
+    private static <T> List<T> anyIfEmpty(List<T> selected) {
+        return selected.isEmpty() ? Collections.singletonList(null) : selected;
+    }
+
+    private void addLocked(Job job) {
+        removeLocked(job.getId());
+        if (job.getSalary() == null) {
+            return;
+        }
+        Entry entry = new Entry(job.getSalary(), groupsOf(job));
+        for (GroupKey group : entry.groups) {
+            histograms.computeIfAbsent(group, g -> new SalaryHistogram()).add(entry.salary);
+        }
+        entries.put(job.getId(), entry);
+    }
+
+    private void removeLocked(UUID jobId) {
+        Entry entry = entries.remove(jobId);
+        if (entry == null) {
+            return;
+        }
+        for (GroupKey group : entry.groups) {
+            SalaryHistogram histogram = histograms.get(group);
+            histogram.remove(entry.salary);
+            if (histogram.getTotal() == 0) {
+                histograms.remove(group);
+            }
+        }
+    }
+
+    private static List<GroupKey> groupsOf(Job job) {
+        JobType type = job.getType();
+        Integer location = job.getLocationId();
+        UUID companyId = job.getCompany() != null ? job.getCompany().getId() : null;
+
+        List<GroupKey> groups = new ArrayList<>(8);
+        for (int mask = 0; mask < 8; mask++) {
+            JobType t = (mask & 1) != 0 ? type : null;
+            Integer l = (mask & 2) != 0 ? location : null;
+            UUID c = (mask & 4) != 0 ? companyId : null;
+            // A job without e.g. a location only belongs to the groups that ignore location.
+            if ((t == null) != ((mask & 1) == 0)
+                    || (l == null) != ((mask & 2) == 0)
+                    || (c == null) != ((mask & 4) == 0)) {
+                continue;
+            }
+            groups.add(new GroupKey(t, l, c));
+        }
+        return groups;
+    }
+
+    private static final class Entry {
+
+        private final double salary;
+        private final List<GroupKey> groups;
+
+        private Entry(double salary, List<GroupKey> groups) {
+            this.salary = salary;
+            this.groups = groups;
+        }
+    }
+
+    /**
+     * A null component means "any value" of that dimension.
+     */
+    private static final class GroupKey {
+
+        private final JobType type;
+        private final Integer location;
+        private final UUID companyId;
+
+        private GroupKey(JobType type, Integer location, UUID companyId) {
+            this.type = type;
+            this.location = location;
+            this.companyId = companyId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof GroupKey other)) {
+                return false;
+            }
+            return type == other.type
+                    && Objects.equals(location, other.location)
+                    && Objects.equals(companyId, other.companyId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, location, companyId);
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package com.Jobtrackr.jta.Job.search;
+
+import com.Jobtrackr.jta.Job.dto.JobListResponse;
+import com.Jobtrackr.jta.Job.entity.Job;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Near-duplicate detection over open jobs with MinHash and locality-sensitive hashing.
+ *
+ * Each job is reduced to the set of word shingles of its title and description, and
+ * that set to a {@value #SIGNATURE_SIZE}-value MinHash signature of 32-bit hashes. The share of equal
+ * signature values estimates the Jaccard similarity of two jobs. The signature is cut
+ * into {@value #BANDS} bands of {@value #ROWS} values and each band is hashed to a
+ * bucket, so candidates are the jobs that share at least one bucket. Jobs become
+ * candidates with probability {@code 1 - (1 - J^4)^16} for Jaccard similarity J: about
+ * 0.2% at 0.1, 64% at 0.5 and 99% at 0.7, so the cut-off sits near 0.5 and unrelated
+ * postings are rarely looked at. At most {@value #MAX_CANDIDATES} candidates are
+ * scored per lookup and only the best are kept, so a lookup never grows with the
+ * number of open jobs.
+ */
+@Component
+public class SimilarJobsIndex implements OpenJobListener {
+
+    private static final int SIGNATURE_SIZE = 64;
+    private static final int BANDS = 16;
+    private static final int ROWS = 4;
+    private static final int MAX_CANDIDATES = 1000;
+    private static final long[] MULTIPLIERS = new long[SIGNATURE_SIZE];
+    private static final long[] OFFSETS = new long[SIGNATURE_SIZE];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            MULTIPLIERS[i] = seed | 1;
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            OFFSETS[i] = seed;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final BandTable[] bands = new BandTable[BANDS];
+    private int[][] signatures = new int[256][];
+    // Bucket chains: the ordinal after ordinal o in its bucket of band b is next[o * BANDS + b].
+    private int[] next = new int[256 * BANDS];
+    private JobListResponse[] rows = new JobListResponse[256];
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private int nextOrdinal;
+
+    public SimilarJobsIndex() {
+        for (int band = 0; band < BANDS; band++) {
+            bands[band] = new BandTable();
+        }
+    }
+
+    @Override
+    public void rebuild(List<Job> openJobs) {
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            for (int band = 0; band < BANDS; band++) {
+                bands[band] = new BandTable();
+            }
+            Arrays.fill(signatures, null);
+            Arrays.fill(rows, null);
+            freeCount = 0;
+            nextOrdinal = 0;
+            for (Job job : openJobs) {
+                addLocked(job);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onJobOpened(Job job) {
+        int[] signature = signature(job);
+        lock.writeLock().lock();
+        try {
+            removeLocked(job.getId());
+            addLocked(job, signature);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onJobClosed(UUID jobId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(jobId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns null when the job is not open, so the caller can fall back to {@link #similarTo}.
+     */
+    public List<JobListResponse> similar(UUID jobId, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinals.get(jobId);
+            if (ordinal == null) {
+                return null;
+            }
+            return rankLocked(signatures[ordinal], ordinal, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Open jobs similar to a job that is not in the index, e.g. a closed one.
+     */
+    public List<JobListResponse> similarTo(Job job, int limit) {
+        int[] signature = signature(job);
+        if (signature == null) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return rankLocked(signature, -1, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<JobListResponse> rankLocked(int[] signature, int self, int limit) {
+        int[] candidates = new int[64];
+        int count = 0;
+        for (int band = 0; band < BANDS && count < MAX_CANDIDATES; band++) {
+            for (int o = bands[band].get(bandKey(signature, band)); o >= 0 && count < MAX_CANDIDATES;
+                 o = next[o * BANDS + band]) {
+                if (o == self) {
+                    continue;
+                }
+                if (count == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, count * 2);
+                }
+                candidates[count++] = o;
+            }
+        }
+        Arrays.sort(candidates, 0, count);
+
+        // Best last: ordered by agreement, then by ordinal; the head is the weakest kept.
+        PriorityQueue<long[]> best = new PriorityQueue<>(limit + 1,
+                (a, b) -> a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(a[0], b[0]));
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && candidates[i] == candidates[i - 1]) {
+                continue;
+            }
+            best.add(new long[]{candidates[i], agreement(signature, signatures[candidates[i]])});
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        JobListResponse[] similar = new JobListResponse[best.size()];
+        for (int i = similar.length - 1; i >= 0; i--) {
+            similar[i] = rows[(int) best.poll()[0]];
+        }
+        return Arrays.asList(similar);
+    }
+
+    private void addLocked(Job job) {
+        removeLocked(job.getId());
+        addLocked(job, signature(job));
+    }
+
+    private void addLocked(Job job, int[] signature) {
+        if (signature == null) {
+            return;
+        }
+        int ordinal = allocateOrdinal();
+        signatures[ordinal] = signature;
+        rows[ordinal] = new JobListResponse(
+                job.getId(),
+                job.getTitle(),
+                job.getLocation(),
+                job.getSalary(),
+                job.getCompany() != null ? job.getCompany().getName() : "",
+                job.getCreatedAt()
+        );
+        ordinals.put(job.getId(), ordinal);
+        for (int band = 0; band < BANDS; band++) {
+            int key = bandKey(signature, band);
+            next[ordinal * BANDS + band] = bands[band].get(key);
+            bands[band].put(key, ordinal);
+        }
+    }
+
+    private void removeLocked(UUID jobId) {
+        Integer ordinal = ordinals.remove(jobId);
+        if (ordinal == null) {
+            return;
+        }
+        int[] signature = signatures[ordinal];
+        for (int band = 0; band < BANDS; band++) {
+            int key = bandKey(signature, band);
+            int head = bands[band].get(key);
+            int after = next[ordinal * BANDS + band];
+            if (head == ordinal) {
+                if (after < 0) {
+                    bands[band].remove(key);
+                } else {
+                    bands[band].put(key, after);
+                }
+                continue;
+            }
+            int previous = head;
+            while (next[previous * BANDS + band] != ordinal) {
+                previous = next[previous * BANDS + band];
+            }
+            next[previous * BANDS + band] = after;
+        }
+        signatures[ordinal] = null;
+        rows[ordinal] = null;
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    private int allocateOrdinal() {
+        if (freeCount > 0) {
+            return freeOrdinals[--freeCount];
+        }
+        if (nextOrdinal == rows.length) {
+            signatures = Arrays.copyOf(signatures, rows.length * 2);
+            next = Arrays.copyOf(next, rows.length * 2 * BANDS);
+            rows = Arrays.copyOf(rows, rows.length * 2);
+        }
+        return nextOrdinal++;
+    }
+
+    private static int agreement(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return equal;
+    }
+
+    private static int bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            key = mix(key * 31 + signature[i]);
+        }
+        return (int) key;
+    }
+
+    /**
+     * Null for a job with no usable text; such jobs have nothing to compare.
+     */
+    private static int[] signature(Job job) {
+        long[] shingles = shingles(job);
+        if (shingles.length == 0) {
+            return null;
+        }
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            // Multiply-shift hashing: one multiply per signature slot per shingle.
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int value = (int) ((shingle * MULTIPLIERS[i] + OFFSETS[i]) >>> 32);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Title words on their own plus word pairs of title and description, as distinct
+     * hashes. Titles are short, so their single words keep two "Java Developer"
+     * postings close even when their descriptions differ.
+     */
+    private static long[] shingles(Job job) {
+        List<String> title = JobTextAnalyzer.terms(job.getTitle());
+        List<String> description = JobTextAnalyzer.terms(job.getDescription());
+        long[] shingles = new long[2 * title.size() + description.size() + 1];
+        int count = 0;
+        for (String term : title) {
+            shingles[count++] = hash("t:" + term);
+        }
+        count = addPairs(shingles, count, title);
+        count = addPairs(shingles, count, description);
+
+        Arrays.sort(shingles, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || shingles[i] != shingles[distinct - 1]) {
+                shingles[distinct++] = shingles[i];
+            }
+        }
+        return Arrays.copyOf(shingles, distinct);
+    }
+
+    private static int addPairs(long[] shingles, int count, List<String> terms) {
+        if (terms.size() == 1) {
+            shingles[count++] = hash(terms.get(0));
+        }
+        for (int i = 0; i + 1 < terms.size(); i++) {
+            shingles[count++] = hash(terms.get(i) + ' ' + terms.get(i + 1));
+        }
+        return count;
+    }
+
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Open-addressing map from band key to the first ordinal of its bucket, with linear
+     * probing and backward-shift deletion. Two int arrays instead of boxed map entries.
+     */
+    private static final class BandTable {
+
+        private int[] keys = new int[16];
+        private int[] heads = filled(16);
+        private int size;
+
+        private int get(int key) {
+            int mask = keys.length - 1;
+            for (int slot = spread(key) & mask; heads[slot] >= 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return heads[slot];
+                }
+            }
+            return -1;
+        }
+
+        private void put(int key, int head) {
+            int mask = keys.length - 1;
+            int slot = spread(key) & mask;
+            while (heads[slot] >= 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (heads[slot] < 0) {
+                size++;
+            }
+            keys[slot] = key;
+            heads[slot] = head;
+            if (size * 4 > keys.length * 3) {
+                resize();
+            }
+        }
+
+        private void remove(int key) {
+            int mask = keys.length - 1;
+            int slot = spread(key) & mask;
+            while (heads[slot] >= 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (heads[slot] < 0) {
+                return;
+            }
+            size--;
+            // Pull later entries of the probe run back so lookups never hit a gap early.
+            int gap = slot;
+            for (int i = (gap + 1) & mask; heads[i] >= 0; i = (i + 1) & mask) {
+                int home = spread(keys[i]) & mask;
+                if (((i - home) & mask) >= ((i - gap) & mask)) {
+                    keys[gap] = keys[i];
+                    heads[gap] = heads[i];
+                    gap = i;
+                }
+            }
+            heads[gap] = -1;
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            int[] oldHeads = heads;
+            keys = new int[oldKeys.length * 2];
+            heads = filled(oldKeys.length * 2);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldHeads[i] >= 0) {
+                    put(oldKeys[i], oldHeads[i]);
+                }
+            }
+        }
+
+        private static int spread(int key) {
+            return key ^ (key >>> 16);
+        }
+
+        private static int[] filled(int length) {
+            int[] array = new int[length];
+            Arrays.fill(array, -1);
+            return array;
+        }
+    }
+}
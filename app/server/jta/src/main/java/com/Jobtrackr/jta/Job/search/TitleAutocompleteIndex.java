@@ -0,0 +1,365 @@
+package com.Jobtrackr.jta.Job.search;
+
+import com.Jobtrackr.jta.Job.dto.TitleAutocompleteStats;
+import com.Jobtrackr.jta.Job.dto.TitleSuggestion;
+import com.Jobtrackr.jta.Job.entity.Job;
+import com.Jobtrackr.jta.util.CompactTrie;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant autocomplete over the titles of open jobs.
+ *
+ * Distinct normalized titles are stored in a {@link CompactTrie} under the full title
+ * and under every word start, so "eng" finds "Senior Engineer". Every node caches the
+ * {@value #MAX_SUGGESTIONS} most popular titles below it, where popularity is the
+ * number of open jobs with that title. An exact prefix lookup is therefore a walk
+ * down the trie plus a read of one cached list.
+ *
+ * Typos are handled by computing a Levenshtein row for each character on the way down
+ * the trie. Branches are abandoned as soon as every cell in the row exceeds the edit
+ * budget, so only a thin band of the trie is ever visited.
+ */
+@Component
+public class TitleAutocompleteIndex implements OpenJobListener {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int[] NO_IDS = new int[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> titleIds = new HashMap<>();
+    private final Map<UUID, Integer> jobTitles = new HashMap<>();
+    private String[] keys = new String[256];
+    private String[] titles = new String[256];
+    private int[] popularity = new int[256];
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+
+    private CompactTrie<int[]> trie = new CompactTrie<>();
+    private boolean bulkLoading;
+
+    @Override
+    public void rebuild(List<Job> openJobs) {
+        lock.writeLock().lock();
+        try {
+            titleIds.clear();
+            jobTitles.clear();
+            Arrays.fill(keys, null);
+            Arrays.fill(titles, null);
+            Arrays.fill(popularity, 0);
+            freeCount = 0;
+            nextId = 0;
+            trie = new CompactTrie<>();
+            // Rank every node once at the end instead of once per job.
+            bulkLoading = true;
+            for (Job job : openJobs) {
+                addLocked(job);
+            }
+            bulkLoading = false;
+            updateTopsBelow(trie.root());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onJobOpened(Job job) {
+        lock.writeLock().lock();
+        try {
+            addLocked(job);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onJobClosed(UUID jobId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(jobId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Titles matching {@code query} as a prefix of the title or of one of its words,
+     * within one edit for short queries and two for longer ones. Closer matches come
+     * first, then more popular titles.
+     */
+    public List<TitleSuggestion> suggest(String query, int limit) {
+        String q = normalize(query);
+        if (q == null || limit <= 0) {
+            return List.of();
+        }
+        if (q.length() > MAX_KEY_LENGTH) {
+            q = q.substring(0, MAX_KEY_LENGTH);
+        }
+        int maxEdits = q.length() <= 2 ? 0 : q.length() <= 5 ? 1 : 2;
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> distances = new HashMap<>();
+            int[] row = new int[q.length() + 1];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = j;
+            }
+            match(trie.root(), q, row, maxEdits, distances);
+
+            List<Map.Entry<Integer, Integer>> hits = new ArrayList<>(distances.entrySet());
+            hits.sort((a, b) -> {
+                if (!a.getValue().equals(b.getValue())) {
+                    return Integer.compare(a.getValue(), b.getValue());
+                }
+                if (popularity[a.getKey()] != popularity[b.getKey()]) {
+                    return Integer.compare(popularity[b.getKey()], popularity[a.getKey()]);
+                }
+                return titles[a.getKey()].compareTo(titles[b.getKey()]);
+            });
+
+            List<TitleSuggestion> suggestions = new ArrayList<>(Math.min(limit, hits.size()));
+            for (int i = 0; i < hits.size() && suggestions.size() < limit; i++) {
+                int id = hits.get(i).getKey();
+                suggestions.add(new TitleSuggestion(titles[id], popularity[id]));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public TitleAutocompleteStats stats() {
+        lock.readLock().lock();
+        try {
+            long bytes = trie.estimateBytes(top -> arrayBytes(top.length, 4))
+                    + arrayBytes(keys.length, 4) + arrayBytes(titles.length, 4)
+                    + arrayBytes(popularity.length, 4) + arrayBytes(freeIds.length, 4)
+                    + (long) titleIds.size() * 48 + (long) jobTitles.size() * 64;
+            for (int id = 0; id < nextId; id++) {
+                if (keys[id] != null) {
+                    bytes += stringBytes(keys[id]) + stringBytes(titles[id]);
+                }
+            }
+            return new TitleAutocompleteStats(titleIds.size(), jobTitles.size(), trie.nodeCount(), bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void match(CompactTrie.Node<int[]> node, String q, int[] parentRow, int maxEdits,
+                       Map<Integer, Integer> distances) {
+        int m = q.length();
+        for (int i = 0; i < node.childCount(); i++) {
+            CompactTrie.Node<int[]> child = node.child(i);
+            String label = child.label();
+            int[] row = parentRow;
+            boolean descend = true;
+            for (int c = 0; c < label.length() && descend; c++) {
+                row = step(row, q, label.charAt(c));
+                if (row[m] <= maxEdits) {
+                    for (int id : top(child)) {
+                        distances.merge(id, row[m], Math::min);
+                    }
+                    // Nothing deeper can beat an exact prefix match.
+                    descend = row[m] > 0;
+                }
+                if (descend && min(row) > maxEdits) {
+                    descend = false;
+                }
+            }
+            if (descend) {
+                match(child, q, row, maxEdits, distances);
+            }
+        }
+    }
+
+    private static int[] step(int[] previous, String q, char c) {
+        int[] row = new int[previous.length];
+        row[0] = previous[0] + 1;
+        for (int j = 1; j < row.length; j++) {
+            int substitution = previous[j - 1] + (q.charAt(j - 1) == c ? 0 : 1);
+            row[j] = Math.min(substitution, Math.min(previous[j] + 1, row[j - 1] + 1));
+        }
+        return row;
+    }
+
+    private static int min(int[] row) {
+        int min = row[0];
+        for (int value : row) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private void addLocked(Job job) {
+        removeLocked(job.getId());
+        String key = normalize(job.getTitle());
+        if (key == null) {
+            return;
+        }
+
+        Integer id = titleIds.get(key);
+        if (id == null) {
+            id = allocateId();
+            keys[id] = key;
+            titles[id] = job.getTitle().strip().replaceAll("\\s+", " ");
+            popularity[id] = 1;
+            titleIds.put(key, id);
+            for (String indexed : indexedKeys(key)) {
+                CompactTrie.Node<int[]> node = trie.put(indexed, id);
+                updateTopsUpFrom(node);
+            }
+        } else {
+            popularity[id]++;
+            refresh(id);
+        }
+        jobTitles.put(job.getId(), id);
+    }
+
+    private void removeLocked(UUID jobId) {
+        Integer id = jobTitles.remove(jobId);
+        if (id == null) {
+            return;
+        }
+        popularity[id]--;
+        if (popularity[id] > 0) {
+            refresh(id);
+            return;
+        }
+
+        for (String indexed : indexedKeys(keys[id])) {
+            updateTopsUpFrom(trie.remove(indexed, id));
+        }
+        titleIds.remove(keys[id]);
+        keys[id] = null;
+        titles[id] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    private int allocateId() {
+        if (freeCount > 0) {
+            return freeIds[--freeCount];
+        }
+        if (nextId == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            popularity = Arrays.copyOf(popularity, capacity);
+        }
+        return nextId++;
+    }
+
+    /**
+     * The popularity of a title changed; re-rank the cached lists on each of its paths.
+     */
+    private void refresh(int id) {
+        if (bulkLoading) {
+            return;
+        }
+        for (String indexed : indexedKeys(keys[id])) {
+            updateTopsUpFrom(trie.find(indexed));
+        }
+    }
+
+    private void updateTopsUpFrom(CompactTrie.Node<int[]> node) {
+        if (bulkLoading) {
+            return;
+        }
+        for (; node != null; node = node.parent()) {
+            updateTop(node);
+        }
+    }
+
+    private void updateTopsBelow(CompactTrie.Node<int[]> node) {
+        for (int i = 0; i < node.childCount(); i++) {
+            updateTopsBelow(node.child(i));
+        }
+        updateTop(node);
+    }
+
+    private void updateTop(CompactTrie.Node<int[]> node) {
+        int[] candidates = new int[MAX_SUGGESTIONS * (node.childCount() + 1) + node.valueCount()];
+        int count = 0;
+        for (int i = 0; i < node.valueCount(); i++) {
+            candidates[count++] = node.value(i);
+        }
+        for (int i = 0; i < node.childCount(); i++) {
+            for (int id : top(node.child(i))) {
+                candidates[count++] = id;
+            }
+        }
+
+        int[] top = new int[Math.min(MAX_SUGGESTIONS, count)];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int id = candidates[i];
+            boolean duplicate = false;
+            for (int j = 0; j < size && !duplicate; j++) {
+                duplicate = top[j] == id;
+            }
+            if (duplicate || (size == top.length && !morePopular(id, top[size - 1]))) {
+                continue;
+            }
+            int at = size < top.length ? size++ : size - 1;
+            while (at > 0 && morePopular(id, top[at - 1])) {
+                top[at] = top[at - 1];
+                at--;
+            }
+            top[at] = id;
+        }
+        node.setPayload(size == top.length ? top : Arrays.copyOf(top, size));
+    }
+
+    private static int[] top(CompactTrie.Node<int[]> node) {
+        return node.payload() != null ? node.payload() : NO_IDS;
+    }
+
+    private boolean morePopular(int a, int b) {
+        return popularity[a] > popularity[b] || (popularity[a] == popularity[b] && a < b);
+    }
+
+    private static List<String> indexedKeys(String key) {
+        List<String> indexed = new ArrayList<>();
+        indexed.add(truncate(key));
+        for (int i = 1; i < key.length(); i++) {
+            if (!Character.isLetterOrDigit(key.charAt(i - 1)) && Character.isLetterOrDigit(key.charAt(i))) {
+                indexed.add(truncate(key.substring(i)));
+            }
+        }
+        return indexed;
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String normalized = text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return (16 + (long) length * elementBytes + 7) & ~7L;
+    }
+
+    private static long stringBytes(String s) {
+        return 24 + arrayBytes(s.length(), 1);
+    }
+}
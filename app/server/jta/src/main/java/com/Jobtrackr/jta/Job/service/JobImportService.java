@@ -0,0 +1,320 @@
+package com.Jobtrackr.jta.Job.service;
+
+import com.Jobtrackr.jta.Job.dto.JobCreateRequest;
+import com.Jobtrackr.jta.Job.dto.JobImportResponse;
+import com.Jobtrackr.jta.Job.entity.Job;
+import com.Jobtrackr.jta.Job.entity.JobStatus;
+import com.Jobtrackr.jta.Job.entity.JobType;
+import com.Jobtrackr.jta.Job.lifecycle.JobLifecycleScheduler;
+import com.Jobtrackr.jta.Job.search.OpenJobIndexer;
+import com.Jobtrackr.jta.exception.BadRequestException;
+import com.Jobtrackr.jta.exception.NotFoundException;
+import com.Jobtrackr.jta.exception.UnauthorizedActionException;
+import com.Jobtrackr.jta.location.service.LocationDictionary;
+import com.Jobtrackr.jta.skill.service.SkillDictionary;
+import com.Jobtrackr.jta.user.entity.Role;
+import com.Jobtrackr.jta.user.entity.User;
+import com.Jobtrackr.jta.user.repository.UserRepository;
+import com.Jobtrackr.jta.util.CsvReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bulk job import. The body is parsed row by row and written through JDBC batch
+ * inserts, so only one chunk of rows is ever held in memory and each chunk costs a
+ * single round trip.
+ */
+@Service
+public class JobImportService {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_DESCRIPTION_LENGTH = 2000;
+
+    private static final String INSERT_JOB =
+            "insert into jobs (id, title, description, location, salary, type, status, created_at, " +
+                    "publish_at, expires_at, company_id, recruiter_id, location_id, skills) " +
+                    "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final OpenJobIndexer openJobIndexer;
+    private final JobLifecycleScheduler jobLifecycleScheduler;
+    private final LocationDictionary locationDictionary;
+    private final SkillDictionary skillDictionary;
+    private final ObjectReader requestReader;
+    private final int batchSize;
+
+    public JobImportService(JdbcTemplate jdbcTemplate,
+                            UserRepository userRepository,
+                            OpenJobIndexer openJobIndexer,
+                            JobLifecycleScheduler jobLifecycleScheduler,
+                            LocationDictionary locationDictionary,
+                            SkillDictionary skillDictionary,
+                            ObjectMapper objectMapper,
+                            @Value("${jobs.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.openJobIndexer = openJobIndexer;
+        this.jobLifecycleScheduler = jobLifecycleScheduler;
+        this.locationDictionary = locationDictionary;
+        this.skillDictionary = skillDictionary;
+        this.requestReader = objectMapper.readerFor(JobCreateRequest.class);
+        this.batchSize = batchSize;
+    }
+
+    public JobImportResponse importJobs(InputStream body, String contentType) throws IOException {
+        Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
+        User recruiter = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        if (recruiter.getRole() != Role.RECRUITER) {
+            throw new UnauthorizedActionException("User is not a recruiter");
+        }
+
+        if (recruiter.getCompany() == null) {
+            throw new UnauthorizedActionException("Recruiter must be assigned to a company before posting jobs");
+        }
+
+        ImportRun run = new ImportRun(recruiter);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        if (contentType != null && contentType.startsWith(CSV)) {
+            readCsv(reader, run);
+        } else if (contentType != null && contentType.startsWith(NDJSON)) {
+            readNdjson(reader, run);
+        } else {
+            throw new BadRequestException("Import accepts " + NDJSON + " or " + CSV);
+        }
+        run.flush();
+
+        return new JobImportResponse(run.received, run.imported, run.received - run.imported, run.errors);
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        long row = 0;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                run.accept(row, requestReader.readValue(line));
+            } catch (JsonProcessingException e) {
+                run.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new BadRequestException("CSV header must contain a title column");
+        }
+
+        List<String> record;
+        long row = 0;
+        while ((record = csv.readRecord()) != null) {
+            row++;
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            try {
+                JobCreateRequest request = new JobCreateRequest();
+                request.setTitle(column(record, columns, "title"));
+                request.setDescription(column(record, columns, "description"));
+                request.setLocation(column(record, columns, "location"));
+                String salary = column(record, columns, "salary");
+                request.setSalary(salary != null ? Double.valueOf(salary) : null);
+                String type = column(record, columns, "type");
+                request.setType(type != null ? JobType.valueOf(type.toUpperCase(Locale.ROOT)) : null);
+                String publishAt = column(record, columns, "publishat");
+                request.setPublishAt(publishAt != null ? LocalDateTime.parse(publishAt) : null);
+                String expiresAt = column(record, columns, "expiresat");
+                request.setExpiresAt(expiresAt != null ? LocalDateTime.parse(expiresAt) : null);
+                // Several skills share one cell, separated by semicolons.
+                String skills = column(record, columns, "skills");
+                request.setSkills(skills != null ? Arrays.asList(skills.split(";")) : null);
+                run.accept(row, request);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                run.reject(row, "Invalid value: " + e.getMessage());
+            }
+        }
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String validate(JobCreateRequest request, LocalDateTime now) {
+        if (request.getTitle() == null || request.getTitle().isBlank()) {
+            return "Title is required";
+        }
+        if (request.getType() == null) {
+            return "Type is required";
+        }
+        if (request.getSalary() != null && request.getSalary() < 0) {
+            return "Salary must not be negative";
+        }
+        if (request.getDescription() != null && request.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Description must be at most " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        if (request.getExpiresAt() != null) {
+            LocalDateTime goesLiveAt = request.getPublishAt() != null && request.getPublishAt().isAfter(now)
+                    ? request.getPublishAt()
+                    : now;
+            if (!request.getExpiresAt().isAfter(goesLiveAt)) {
+                return "expiresAt must be after the job is published";
+            }
+        }
+        return null;
+    }
+
+    private final class ImportRun {
+
+        private final User recruiter;
+        private final List<Job> pending = new ArrayList<>(batchSize);
+        private final List<Long> pendingRows = new ArrayList<>(batchSize);
+        private final List<JobImportResponse.RowError> errors = new ArrayList<>();
+        private int received;
+        private int imported;
+
+        private ImportRun(User recruiter) {
+            this.recruiter = recruiter;
+        }
+
+        private void accept(long row, JobCreateRequest request) {
+            received++;
+            LocalDateTime now = LocalDateTime.now();
+            String error = validate(request, now);
+            if (error != null) {
+                addError(row, error);
+                return;
+            }
+            byte[] skills;
+            Integer locationId;
+            try {
+                skills = skillDictionary.encode(request.getSkills());
+                locationId = locationDictionary.intern(request.getLocation());
+            } catch (BadRequestException e) {
+                addError(row, e.getMessage());
+                return;
+            }
+
+            Job job = new Job();
+            job.setId(UUID.randomUUID());
+            job.setTitle(request.getTitle().trim());
+            job.setDescription(request.getDescription());
+            job.setLocationId(locationId);
+            job.setLocation(locationDictionary.name(locationId));
+            job.setSkills(skills);
+            job.setSalary(request.getSalary());
+            job.setType(request.getType());
+            boolean scheduled = request.getPublishAt() != null && request.getPublishAt().isAfter(now);
+            job.setStatus(scheduled ? JobStatus.SCHEDULED : JobStatus.OPEN);
+            job.setCreatedAt(now);
+            job.setPublishAt(request.getPublishAt());
+            job.setExpiresAt(request.getExpiresAt());
+            job.setCompany(recruiter.getCompany());
+            job.setRecruiter(recruiter);
+
+            pending.add(job);
+            pendingRows.add(row);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void reject(long row, String message) {
+            received++;
+            addError(row, message);
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                jdbcTemplate.batchUpdate(INSERT_JOB, pending, pending.size(), (ps, job) -> {
+                    ps.setObject(1, job.getId());
+                    ps.setString(2, job.getTitle());
+                    ps.setString(3, job.getDescription());
+                    ps.setString(4, job.getLocation());
+                    ps.setObject(5, job.getSalary());
+                    ps.setString(6, job.getType().name());
+                    ps.setString(7, job.getStatus().name());
+                    ps.setTimestamp(8, Timestamp.valueOf(job.getCreatedAt()));
+                    ps.setTimestamp(9, job.getPublishAt() != null ? Timestamp.valueOf(job.getPublishAt()) : null);
+                    ps.setTimestamp(10, job.getExpiresAt() != null ? Timestamp.valueOf(job.getExpiresAt()) : null);
+                    ps.setObject(11, job.getCompany().getId());
+                    ps.setObject(12, recruiter.getId());
+                    ps.setObject(13, job.getLocationId());
+                    ps.setBytes(14, job.getSkills());
+                });
+                imported += pending.size();
+                List<Job> opened = new ArrayList<>(pending.size());
+                for (Job job : pending) {
+                    if (job.getStatus() == JobStatus.SCHEDULED) {
+                        jobLifecycleScheduler.schedulePublish(job.getId(), job.getPublishAt());
+                    } else {
+                        opened.add(job);
+                    }
+                    if (job.getExpiresAt() != null) {
+                        jobLifecycleScheduler.scheduleExpiry(job.getId(), job.getExpiresAt());
+                    }
+                }
+                openJobIndexer.jobsOpened(opened);
+            } catch (DataAccessException e) {
+                String message = "Batch insert failed: " + e.getMostSpecificCause().getMessage();
+                pendingRows.forEach(row -> addError(row, message));
+            }
+            pending.clear();
+            pendingRows.clear();
+        }
+
+        private void addError(long row, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new JobImportResponse.RowError(row, message));
+            }
+        }
+    }
+}
@@ -1,25 +1,58 @@
 package com.Jobtrackr.jta.Job.service;
 
 
+import com.Jobtrackr.jta.Job.dto.FacetedJobPage;
 import com.Jobtrackr.jta.Job.dto.JobCreateRequest;
 import com.Jobtrackr.jta.Job.dto.JobListResponse;
+import com.Jobtrackr.jta.Job.dto.JobMatchResponse;
 import com.Jobtrackr.jta.Job.dto.JobResponse;
+import com.Jobtrackr.jta.Job.dto.RecruiterJobResponse;
+import com.Jobtrackr.jta.Job.dto.SalaryStatsResponse;
+import com.Jobtrackr.jta.Job.dto.TitleAutocompleteStats;
+import com.Jobtrackr.jta.Job.dto.TitleSuggestion;
 import com.Jobtrackr.jta.Job.entity.Job;
 import com.Jobtrackr.jta.Job.entity.JobStatus;
+import com.Jobtrackr.jta.Job.entity.JobType;
+import com.Jobtrackr.jta.Job.lifecycle.JobLifecycleScheduler;
 import com.Jobtrackr.jta.Job.repository.JobRepo;
+import com.Jobtrackr.jta.Job.search.JobFacetFilter;
+import com.Jobtrackr.jta.Job.search.JobFacetIndex;
+import com.Jobtrackr.jta.Job.search.JobSearchIndex;
+import com.Jobtrackr.jta.Job.search.OpenJobIndexer;
+import com.Jobtrackr.jta.Job.search.SalaryHistogram;
+import com.Jobtrackr.jta.Job.search.SalaryStatsIndex;
+import com.Jobtrackr.jta.Job.search.SimilarJobsIndex;
+import com.Jobtrackr.jta.Job.search.TitleAutocompleteIndex;
+import com.Jobtrackr.jta.Job.views.JobViewTracker;
+import com.Jobtrackr.jta.application.service.ApplicationCounters;
+import com.Jobtrackr.jta.company.repository.CompanyRepo;
+import com.Jobtrackr.jta.config.AuthPrincipal;
+import com.Jobtrackr.jta.exception.BadRequestException;
 import com.Jobtrackr.jta.exception.ConflictException;
 import com.Jobtrackr.jta.exception.NotFoundException;
 import com.Jobtrackr.jta.exception.UnauthorizedActionException;
+import com.Jobtrackr.jta.export.ExportFormat;
+import com.Jobtrackr.jta.export.JdbcExporter;
+import com.Jobtrackr.jta.location.service.LocationDictionary;
+import com.Jobtrackr.jta.pagination.Cursor;
+import com.Jobtrackr.jta.pagination.CursorSlice;
+import com.Jobtrackr.jta.skill.service.SkillDictionary;
+import com.Jobtrackr.jta.skill.service.SkillMatcher;
 import com.Jobtrackr.jta.user.entity.Role;
-import com.Jobtrackr.jta.user.entity.User;
 import com.Jobtrackr.jta.user.repository.UserRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -27,40 +60,98 @@ import java.util.UUID;
 
         private final JobRepo jobRepository;
         private final UserRepository userRepository;
+        private final CompanyRepo companyRepository;
+        private final OpenJobIndexer openJobIndexer;
+        private final JobSearchIndex jobSearchIndex;
+        private final JobFacetIndex jobFacetIndex;
+        private final JobLifecycleScheduler jobLifecycleScheduler;
+        private final SalaryStatsIndex salaryStatsIndex;
+        private final LocationDictionary locationDictionary;
+        private final TitleAutocompleteIndex titleAutocompleteIndex;
+        private final SimilarJobsIndex similarJobsIndex;
+        private final JobViewTracker jobViewTracker;
+        private final JdbcExporter jdbcExporter;
+        private final ApplicationCounters applicationCounters;
+        private final SkillDictionary skillDictionary;
+        private final SkillMatcher skillMatcher;
+
+        private static final int MAX_SEARCH_RESULTS = 100;
+        private static final int MAX_SIMILAR_JOBS = 20;
+        private static final int MAX_MATCHING_JOBS = 100;
 
         public JobService(JobRepo jobRepository,
-                          UserRepository userRepository) {
+                          UserRepository userRepository,
+                          CompanyRepo companyRepository,
+                          OpenJobIndexer openJobIndexer,
+                          JobSearchIndex jobSearchIndex,
+                          JobFacetIndex jobFacetIndex,
+                          JobLifecycleScheduler jobLifecycleScheduler,
+                          SalaryStatsIndex salaryStatsIndex,
+                          LocationDictionary locationDictionary,
+                          TitleAutocompleteIndex titleAutocompleteIndex,
+                          SimilarJobsIndex similarJobsIndex,
+                          JobViewTracker jobViewTracker,
+                          JdbcExporter jdbcExporter,
+                          ApplicationCounters applicationCounters,
+                          SkillDictionary skillDictionary,
+                          SkillMatcher skillMatcher) {
             this.jobRepository = jobRepository;
             this.userRepository = userRepository;
+            this.companyRepository = companyRepository;
+            this.openJobIndexer = openJobIndexer;
+            this.jobSearchIndex = jobSearchIndex;
+            this.jobFacetIndex = jobFacetIndex;
+            this.jobLifecycleScheduler = jobLifecycleScheduler;
+            this.salaryStatsIndex = salaryStatsIndex;
+            this.locationDictionary = locationDictionary;
+            this.titleAutocompleteIndex = titleAutocompleteIndex;
+            this.similarJobsIndex = similarJobsIndex;
+            this.jobViewTracker = jobViewTracker;
+            this.jdbcExporter = jdbcExporter;
+            this.applicationCounters = applicationCounters;
+            this.skillDictionary = skillDictionary;
+            this.skillMatcher = skillMatcher;
         }
 
         public JobResponse createJob(JobCreateRequest request) {
-            Authentication authentication =
-                    SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            User recruiter = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new NotFoundException("User not found"));
-
-            if (recruiter.getRole() != Role.RECRUITER) {
-                throw new UnauthorizedActionException("User is not a recruiter");
-            }
+            AuthPrincipal recruiter = AuthPrincipal.require(Role.RECRUITER, "User is not a recruiter");
 
-            if (recruiter.getCompany() == null) {
+            if (recruiter.getCompanyId() == null) {
                 throw new UnauthorizedActionException("Recruiter must be assigned to a company before posting jobs");
             }
 
+            LocalDateTime now = LocalDateTime.now();
+            boolean scheduled = request.getPublishAt() != null && request.getPublishAt().isAfter(now);
+            LocalDateTime goesLiveAt = scheduled ? request.getPublishAt() : now;
+            if (request.getExpiresAt() != null && !request.getExpiresAt().isAfter(goesLiveAt)) {
+                throw new BadRequestException("expiresAt must be after the job is published");
+            }
+
             Job job = new Job();
             job.setTitle(request.getTitle());
             job.setDescription(request.getDescription());
-            job.setLocation(request.getLocation());
+            job.setLocationId(locationDictionary.intern(request.getLocation()));
+            job.setLocation(locationDictionary.name(job.getLocationId()));
+            job.setSkills(skillDictionary.encode(request.getSkills()));
             job.setSalary(request.getSalary());
             job.setType(request.getType());
-            job.setStatus(JobStatus.OPEN);
-            job.setCreatedAt(LocalDateTime.now());
-            job.setCompany(recruiter.getCompany());
-            job.setRecruiter(recruiter);
+            job.setStatus(scheduled ? JobStatus.SCHEDULED : JobStatus.OPEN);
+            job.setCreatedAt(now);
+            job.setPublishAt(request.getPublishAt());
+            job.setExpiresAt(request.getExpiresAt());
+            job.setCompany(companyRepository.findById(recruiter.getCompanyId())
+                    .orElseThrow(() -> new NotFoundException("Company not found")));
+            job.setRecruiter(userRepository.getReferenceById(recruiter.getUserId()));
 
             Job saved = jobRepository.save(job);
+            if (scheduled) {
+                jobLifecycleScheduler.schedulePublish(saved.getId(), saved.getPublishAt());
+            } else {
+                openJobIndexer.jobOpened(saved);
+            }
+            if (saved.getExpiresAt() != null) {
+                jobLifecycleScheduler.scheduleExpiry(saved.getId(), saved.getExpiresAt());
+            }
 
             return new JobResponse(
                     saved.getId(),
@@ -70,86 +161,154 @@ import java.util.UUID;
                     saved.getSalary(),
                     saved.getType(),
                     saved.getStatus(),
-                    saved.getCompany().getName()
+                    saved.getCompany().getName(),
+                    saved.getPublishAt(),
+                    saved.getExpiresAt(),
+                    skillDictionary.decode(saved.getSkills())
             );
         }
 
-        public Page<JobListResponse> getJobsByRecruiter(Pageable pageable) {
-            Authentication authentication =
-                    SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            User recruiter = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new NotFoundException("User not found"));
+        public Page<RecruiterJobResponse> getJobsByRecruiter(Pageable pageable) {
+            AuthPrincipal recruiter = AuthPrincipal.require(Role.RECRUITER, "Only recruiters can list their jobs");
 
-            if (recruiter.getRole() != Role.RECRUITER) {
-                throw new UnauthorizedActionException("Only recruiters can list their jobs");
-            }
-
-            return jobRepository.findByRecruiterId(recruiter.getId(), pageable)
-                    .map(job -> new JobListResponse(
-                            job.getId(),
-                            job.getTitle(),
-                            job.getLocation(),
-                            job.getSalary(),
-                            job.getCompany().getName(),
-                            job.getStatus(),
-                            job.getCreatedAt()
-                    ));
+            Page<JobListResponse> page = jobRepository.findListRowsByRecruiterId(recruiter.getUserId(), pageable);
+            Map<UUID, JobViewTracker.Counts> views =
+                    jobViewTracker.counts(page.map(JobListResponse::getId).getContent());
+            return page.map(job -> {
+                JobViewTracker.Counts counts = views.get(job.getId());
+                return new RecruiterJobResponse(job, counts.getViews(), counts.getUniqueViewers(),
+                        applicationCounters.countsFor(job.getId()));
+            });
         }
 
         public Page<JobListResponse> getAllJobsAdmin(Pageable pageable) {
-            Authentication authentication =
-                    SecurityContextHolder.getContext().getAuthentication();
-            User user = userRepository.findByEmail(authentication.getName())
-                    .orElseThrow(() -> new NotFoundException("User not found"));
-            if (user.getRole() != Role.ADMIN) {
-                throw new UnauthorizedActionException("Only admins can list all jobs");
+            AuthPrincipal.require(Role.ADMIN, "Only admins can list all jobs");
+            return jobRepository.findAllListRows(pageable);
+        }
+
+        public StreamingResponseBody exportJobs(ExportFormat format, JobStatus status) {
+            AuthPrincipal.require(Role.ADMIN, "Only admins can export jobs");
+
+            StringBuilder sql = new StringBuilder(
+                    "select j.id, j.title, j.location, j.salary, j.type, j.status, c.name as company_name, " +
+                    "r.email as recruiter_email, j.created_at, j.publish_at, j.expires_at " +
+                    "from jobs j left join company c on c.id = j.company_id left join users r on r.id = j.recruiter_id");
+            List<Object> args = new ArrayList<>();
+            if (status != null) {
+                sql.append(" where j.status = ?");
+                args.add(status.name());
             }
-            return jobRepository.findAll(pageable)
-                    .map(job -> new JobListResponse(
-                            job.getId(),
-                            job.getTitle(),
-                            job.getLocation(),
-                            job.getSalary(),
-                            job.getCompany() != null ? job.getCompany().getName() : "",
-                            job.getStatus(),
-                            job.getCreatedAt()
-                    ));
+            return jdbcExporter.stream(format, sql.toString(), args.toArray());
         }
 
     public Page<JobListResponse> getOpenJobs(Pageable pageable) {
 
-        Page<Job> jobs = jobRepository.findByStatus(JobStatus.OPEN, pageable);
-
-        return jobs.map(job ->
-                new JobListResponse(
-                        job.getId(),
-                        job.getTitle(),
-                        job.getLocation(),
-                        job.getSalary(),
-                        job.getCompany().getName(),
-                        job.getCreatedAt()
-                )
-        );
+        return jobRepository.findListRowsByStatus(JobStatus.OPEN, pageable);
+    }
+
+    public FacetedJobPage getOpenJobs(JobFacetFilter filter, Pageable pageable) {
+
+        Page<JobListResponse> page = filter.isEmpty()
+                ? getOpenJobs(pageable)
+                : jobFacetIndex.find(filter, pageable);
+
+        return new FacetedJobPage(page, jobFacetIndex.facets(filter));
     }
-    public void closeJob(UUID jobId) {
 
-        Authentication authentication =
-                SecurityContextHolder.getContext().getAuthentication();
+    public CursorSlice<JobListResponse> getOpenJobsFeed(String cursorToken, int size) {
+        Cursor cursor = Cursor.decode(cursorToken);
 
-        String email = authentication.getName();
+        List<JobListResponse> rows = cursor == null
+                ? jobRepository.findFeedByStatus(JobStatus.OPEN, Cursor.probeLimit(size))
+                : jobRepository.findFeedByStatusAfter(JobStatus.OPEN, cursor.getTimestamp(),
+                        cursor.getId(), Cursor.probeLimit(size));
 
-        User recruiter = userRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+        return Cursor.slice(rows, size, row -> new Cursor(row.getCreatedAt(), row.getId()));
+    }
 
-        if (recruiter.getRole() != Role.RECRUITER) {
-            throw new UnauthorizedActionException("Only recruiters can close jobs");
+    public List<JobListResponse> searchOpenJobs(String query, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
         }
+        return jobSearchIndex.search(query, Math.min(Math.max(size, 1), MAX_SEARCH_RESULTS));
+    }
+
+    public List<JobListResponse> getSimilarJobs(UUID jobId, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_SIMILAR_JOBS);
+        List<JobListResponse> similar = similarJobsIndex.similar(jobId, limit);
+        if (similar != null) {
+            return similar;
+        }
+
+        Job job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new NotFoundException("Job not found"));
+        return similarJobsIndex.similarTo(job, limit);
+    }
+
+    /**
+     * Open jobs ranked by how many of their skills the signed-in candidate has.
+     */
+    public List<JobMatchResponse> getMatchingJobs(int size) {
+        AuthPrincipal candidate = AuthPrincipal.require(Role.CANDIDATE, "Only candidates can view matching jobs");
+
+        long[] skills = skillMatcher.candidateSkills(candidate.getUserId());
+        int limit = Math.min(Math.max(size, 1), MAX_MATCHING_JOBS);
+        return skillMatcher.rankOpenJobs(skills, limit).stream()
+                .map(match -> new JobMatchResponse(match.getJob(), match.getMatched(), match.getRequired(),
+                        skillDictionary.names(SkillMatcher.intersection(skills, match.getSkills()))))
+                .toList();
+    }
+
+    /**
+     * Counts a view of an open job. Signed-in viewers are identified by account,
+     * anyone else by client address and user agent.
+     */
+    public void recordView(UUID jobId, String clientFingerprint) {
+        if (!jobFacetIndex.isOpen(jobId)) {
+            throw new NotFoundException("Job not found");
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String viewer = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)
+                ? "user:" + authentication.getName()
+                : "client:" + clientFingerprint;
+        jobViewTracker.record(jobId, viewer);
+    }
+
+    public List<TitleSuggestion> autocompleteTitles(String query, int size) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return titleAutocompleteIndex.suggest(query,
+                Math.min(Math.max(size, 1), TitleAutocompleteIndex.MAX_SUGGESTIONS));
+    }
+
+    public TitleAutocompleteStats getTitleAutocompleteStats() {
+        return titleAutocompleteIndex.stats();
+    }
+
+    public SalaryStatsResponse getSalaryStats(List<JobType> types, List<String> locations, List<UUID> companyIds) {
+        List<Integer> locationIds = locations != null
+                ? locations.stream().map(locationDictionary::lookup).filter(Objects::nonNull).toList()
+                : List.of();
+        if (locations != null && !locations.isEmpty() && locationIds.isEmpty()) {
+            return new SalaryStatsResponse(new SalaryHistogram());
+        }
+        return new SalaryStatsResponse(salaryStatsIndex.histogram(
+                types != null ? types : List.of(),
+                locationIds,
+                companyIds != null ? companyIds : List.of()
+        ));
+    }
+
+    public void closeJob(UUID jobId) {
+
+        AuthPrincipal recruiter = AuthPrincipal.require(Role.RECRUITER, "Only recruiters can close jobs");
 
         Job job = jobRepository.findById(jobId)
                 .orElseThrow(() -> new NotFoundException("Job not found"));
 
-        if (!job.getRecruiter().getId().equals(recruiter.getId())) {
+        if (!job.getRecruiter().getId().equals(recruiter.getUserId())) {
             throw new UnauthorizedActionException("You do not own this job");
         }
 
@@ -160,6 +319,10 @@ import java.util.UUID;
         job.setStatus(JobStatus.CLOSED);
 
         jobRepository.save(job);
+        jobLifecycleScheduler.cancel(jobId);
+        // Even a job read as scheduled may have just been published and indexed by the
+        // lifecycle scheduler; the indexes ignore jobs they do not hold.
+        openJobIndexer.jobClosed(jobId);
     }
 
 
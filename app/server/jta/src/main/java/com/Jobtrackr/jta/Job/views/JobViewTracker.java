@@ -0,0 +1,213 @@
+package com.Jobtrackr.jta.Job.views;
+
+import com.Jobtrackr.jta.Job.repository.JobViewCounts;
+import com.Jobtrackr.jta.Job.repository.JobViewStatsRepo;
+import com.Jobtrackr.jta.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts job views in memory and writes them to {@code job_view_stats} in periodic
+ * batches, so a page view never costs a database write.
+ *
+ * Each job gets a {@link LongAdder} of views not yet flushed and a {@link HyperLogLog}
+ * of the viewers seen. A flush adds the view deltas to the stored totals and merges
+ * the sketch with the stored one; merging is idempotent, so the in-memory sketch is
+ * never reset. Counters idle for several flushes are dropped to bound memory.
+ */
+@Component
+public class JobViewTracker {
+
+    private static final int FLUSH_CHUNK = 1000;
+    private static final int EVICT_AFTER_IDLE_FLUSHES = 6;
+
+    private static final String UPSERT =
+            "insert into job_view_stats (job_id, views, unique_viewers, hll, updated_at) values (?, ?, ?, ?, ?) " +
+            "on conflict (job_id) do update set views = job_view_stats.views + excluded.views, " +
+            "unique_viewers = excluded.unique_viewers, hll = excluded.hll, updated_at = excluded.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JobViewStatsRepo jobViewStatsRepository;
+    private final ConcurrentHashMap<UUID, Counter> counters = new ConcurrentHashMap<>();
+
+    public JobViewTracker(JdbcTemplate jdbcTemplate, JobViewStatsRepo jobViewStatsRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobViewStatsRepository = jobViewStatsRepository;
+    }
+
+    public void record(UUID jobId, String viewerKey) {
+        Counter counter = counters.computeIfAbsent(jobId, id -> new Counter());
+        counter.views.increment();
+        counter.viewers.offer(viewerKey);
+        counter.dirty.set(true);
+        if (counter.evicted) {
+            reattach(jobId, counter);
+        }
+    }
+
+    /**
+     * Stored totals plus whatever has been recorded since the last flush.
+     */
+    public Map<UUID, Counts> counts(Collection<UUID> jobIds) {
+        Map<UUID, Counts> result = new HashMap<>();
+        if (jobIds.isEmpty()) {
+            return result;
+        }
+        for (JobViewCounts row : jobViewStatsRepository.findCountsByJobIdIn(jobIds)) {
+            result.put(row.getJobId(), new Counts(row.getViews(), row.getUniqueViewers()));
+        }
+        for (UUID jobId : jobIds) {
+            Counter counter = counters.get(jobId);
+            Counts stored = result.getOrDefault(jobId, Counts.NONE);
+            if (counter == null) {
+                result.put(jobId, stored);
+                continue;
+            }
+            long views = stored.getViews() + counter.views.sum();
+            long unique = Math.min(views, Math.max(stored.getUniqueViewers(), counter.viewers.estimate()));
+            result.put(jobId, new Counts(views, unique));
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.views.flush-interval-ms:10000}")
+    public void flush() {
+        List<UUID> ids = new ArrayList<>();
+        List<Counter> batch = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+
+        for (Map.Entry<UUID, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            if (!counter.dirty.getAndSet(false)) {
+                if (++counter.idleFlushes >= EVICT_AFTER_IDLE_FLUSHES) {
+                    counter.evicted = true;
+                    counters.remove(entry.getKey(), counter);
+                    // A view recorded meanwhile is moved to a live counter, here or by its recorder.
+                    if (counter.dirty.get()) {
+                        reattach(entry.getKey(), counter);
+                    }
+                }
+                continue;
+            }
+            counter.idleFlushes = 0;
+            ids.add(entry.getKey());
+            batch.add(counter);
+            deltas.add(counter.views.sumThenReset());
+        }
+
+        for (int from = 0; from < ids.size(); from += FLUSH_CHUNK) {
+            int to = Math.min(ids.size(), from + FLUSH_CHUNK);
+            try {
+                write(ids.subList(from, to), batch.subList(from, to), deltas.subList(from, to));
+            } catch (RuntimeException e) {
+                System.err.println("Failed to flush view counts for " + (to - from) + " jobs: " + e.getMessage());
+                for (int i = from; i < to; i++) {
+                    batch.get(i).views.add(deltas.get(i));
+                    batch.get(i).dirty.set(true);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(List<UUID> ids, List<Counter> batch, List<Long> deltas) {
+        Map<UUID, HyperLogLog> stored = loadSketches(ids);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            HyperLogLog viewers = batch.get(i).viewers;
+            HyperLogLog previous = stored.get(ids.get(i));
+            if (previous != null) {
+                viewers.merge(previous);
+            }
+            rows.add(new Object[]{ids.get(i), deltas.get(i), viewers.estimate(), viewers.toBytes(), now});
+        }
+        jdbcTemplate.batchUpdate(UPSERT, rows);
+    }
+
+    private Map<UUID, HyperLogLog> loadSketches(List<UUID> ids) {
+        Map<UUID, HyperLogLog> sketches = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement =
+                    connection.prepareStatement("select job_id, hll from job_view_stats where job_id = any (?)");
+            Array array = connection.createArrayOf("uuid", ids.toArray());
+            statement.setArray(1, array);
+            return statement;
+        }, rs -> {
+            sketches.put(rs.getObject("job_id", UUID.class), HyperLogLog.fromBytes(rs.getBytes("hll")));
+        });
+        return sketches;
+    }
+
+    /**
+     * A view raced with eviction: fold the evicted counter into a live one, so the
+     * view is not lost. The evicted counter itself is never put back, since the flush
+     * evicting it may not have removed it yet; if it is still mapped it is replaced.
+     * Folding twice is harmless, the second time moves no views.
+     */
+    private void reattach(UUID jobId, Counter counter) {
+        Counter evicted = counter;
+        while (true) {
+            Counter from = evicted;
+            Counter current = counters.compute(jobId,
+                    (id, mapped) -> mapped == null || mapped == from ? new Counter() : mapped);
+            current.views.add(from.views.sumThenReset());
+            current.viewers.merge(from.viewers);
+            current.dirty.set(true);
+            // The target may have been evicted in the meantime too; then move on again.
+            if (!current.evicted) {
+                return;
+            }
+            evicted = current;
+        }
+    }
+
+    private static final class Counter {
+        private final LongAdder views = new LongAdder();
+        private final HyperLogLog viewers = new HyperLogLog();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private volatile boolean evicted;
+        private int idleFlushes;
+    }
+
+    public static final class Counts {
+
+        private static final Counts NONE = new Counts(0, 0);
+
+        private final long views;
+        private final long uniqueViewers;
+
+        public Counts(long views, long uniqueViewers) {
+            this.views = views;
+            this.uniqueViewers = uniqueViewers;
+        }
+
+        public long getViews() {
+            return views;
+        }
+
+        public long getUniqueViewers() {
+            return uniqueViewers;
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.Jobtrackr.jta.application.controller;
 
 import com.Jobtrackr.jta.application.dto.ApplicationResponse;
+import com.Jobtrackr.jta.application.dto.BulkStatusUpdateRequest;
+import com.Jobtrackr.jta.application.dto.BulkStatusUpdateResponse;
 import com.Jobtrackr.jta.application.dto.CandidateApplicationResponse;
+import com.Jobtrackr.jta.application.dto.RankedApplicantResponse;
 import com.Jobtrackr.jta.application.dto.UpdateApplicationStatusRequest;
+import com.Jobtrackr.jta.application.entity.ApplicationStatus;
 import com.Jobtrackr.jta.application.service.ApplicationService;
+import com.Jobtrackr.jta.export.ExportFormat;
+import com.Jobtrackr.jta.pagination.CursorSlice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -33,9 +43,42 @@ public ResponseEntity<String> apply(@PathVariable UUID jobId) {
 }
 
     @GetMapping("/jobs/{jobId}")
-    public ResponseEntity<List<ApplicationResponse>> getApplicationsForJob(
-            @PathVariable UUID jobId) {
-        return ResponseEntity.ok(applicationService.getApplicationsForJob(jobId));
+    public ResponseEntity<CursorSlice<ApplicationResponse>> getApplicationsForJob(
+            @PathVariable UUID jobId,
+            @RequestParam(required = false) ApplicationStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(applicationService.getApplicationsForJob(jobId, status, cursor, size));
+    }
+
+    @GetMapping("/jobs/{jobId}/ranked")
+    public ResponseEntity<List<RankedApplicantResponse>> getRankedApplicants(
+            @PathVariable UUID jobId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(applicationService.getRankedApplicantsForJob(jobId, size));
+    }
+
+    @GetMapping("/jobs/{jobId}/stream")
+    public ResponseEntity<StreamingResponseBody> streamApplicationsForJob(
+            @PathVariable UUID jobId,
+            @RequestParam(required = false) ApplicationStatus status,
+            @RequestParam(required = false) String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .body(applicationService.streamApplicationsForJob(jobId, status, exportFormat));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportApplications(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) UUID jobId,
+            @RequestParam(required = false) ApplicationStatus status) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.attachment("applications"))
+                .body(applicationService.exportApplications(exportFormat, jobId, status));
     }
 
 
@@ -51,6 +94,14 @@ public ResponseEntity<String> apply(@PathVariable UUID jobId) {
 
             return ResponseEntity.ok("Application status updated");
         }
+    @PatchMapping("/status")
+    public ResponseEntity<BulkStatusUpdateResponse> updateStatuses(
+            @RequestBody BulkStatusUpdateRequest request) {
+        return ResponseEntity.ok(
+                applicationService.updateStatuses(request.getApplicationIds(), request.getStatus())
+        );
+    }
+
     @GetMapping("/me/applications")
     public ResponseEntity<Page<CandidateApplicationResponse>> getMyApplications(
             @PageableDefault(size = 10, sort = "appliedAt", direction = Sort.Direction.DESC)
@@ -61,6 +112,25 @@ public ResponseEntity<String> apply(@PathVariable UUID jobId) {
         );
     }
 
+    @GetMapping("/me/applications/feed")
+    public ResponseEntity<CursorSlice<CandidateApplicationResponse>> getMyApplicationsFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        return ResponseEntity.ok(
+                applicationService.getMyApplicationsFeed(cursor, size)
+        );
+    }
+
+    @GetMapping(value = "/me/applications/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamMyApplicationEvents() {
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(applicationService.subscribeToStatusChanges());
+    }
+
 
 }
 
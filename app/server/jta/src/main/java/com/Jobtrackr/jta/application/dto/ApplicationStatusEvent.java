@@ -0,0 +1,30 @@
+package com.Jobtrackr.jta.application.dto;
+
+import com.Jobtrackr.jta.application.entity.ApplicationStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class ApplicationStatusEvent {
+
+    private final UUID applicationId;
+    private final UUID jobId;
+    private final ApplicationStatus previousStatus;
+    private final ApplicationStatus status;
+    private final LocalDateTime updatedAt;
+
+    public ApplicationStatusEvent(UUID applicationId, UUID jobId, ApplicationStatus previousStatus,
+                                  ApplicationStatus status, LocalDateTime updatedAt) {
+        this.applicationId = applicationId;
+        this.jobId = jobId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.updatedAt = updatedAt;
+    }
+
+    public UUID getApplicationId() { return applicationId; }
+    public UUID getJobId() { return jobId; }
+    public ApplicationStatus getPreviousStatus() { return previousStatus; }
+    public ApplicationStatus getStatus() { return status; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,28 @@
+package com.Jobtrackr.jta.application.dto;
+
+import com.Jobtrackr.jta.application.entity.ApplicationStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+public class BulkStatusUpdateRequest {
+
+    private List<UUID> applicationIds;
+    private ApplicationStatus status;
+
+    public List<UUID> getApplicationIds() {
+        return applicationIds;
+    }
+
+    public void setApplicationIds(List<UUID> applicationIds) {
+        this.applicationIds = applicationIds;
+    }
+
+    public ApplicationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ApplicationStatus status) {
+        this.status = status;
+    }
+}
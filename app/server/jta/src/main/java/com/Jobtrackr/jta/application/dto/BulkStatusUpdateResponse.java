@@ -0,0 +1,41 @@
+package com.Jobtrackr.jta.application.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class BulkStatusUpdateResponse {
+
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND,
+        FORBIDDEN,
+        JOB_NOT_OPEN,
+        CONFLICT
+    }
+
+    private final int updated;
+    private final List<Result> results;
+
+    public BulkStatusUpdateResponse(int updated, List<Result> results) {
+        this.updated = updated;
+        this.results = results;
+    }
+
+    public int getUpdated() { return updated; }
+    public List<Result> getResults() { return results; }
+
+    public static class Result {
+
+        private final UUID applicationId;
+        private final Outcome outcome;
+
+        public Result(UUID applicationId, Outcome outcome) {
+            this.applicationId = applicationId;
+            this.outcome = outcome;
+        }
+
+        public UUID getApplicationId() { return applicationId; }
+        public Outcome getOutcome() { return outcome; }
+    }
+}
@@ -0,0 +1,25 @@
+package com.Jobtrackr.jta.application.dto;
+
+import java.util.List;
+
+public class RankedApplicantResponse extends ApplicationResponse {
+
+    private final int matchedSkillCount;
+    private final int jobSkillCount;
+    private final List<String> matchedSkills;
+
+    public RankedApplicantResponse(ApplicationResponse applicant,
+                                   int matchedSkillCount,
+                                   int jobSkillCount,
+                                   List<String> matchedSkills) {
+        super(applicant.getApplicationId(), applicant.getCandidateId(), applicant.getCandidateEmail(),
+                applicant.getCandidateName(), applicant.getStatus(), applicant.getAppliedAt());
+        this.matchedSkillCount = matchedSkillCount;
+        this.jobSkillCount = jobSkillCount;
+        this.matchedSkills = matchedSkills;
+    }
+
+    public int getMatchedSkillCount() { return matchedSkillCount; }
+    public int getJobSkillCount() { return jobSkillCount; }
+    public List<String> getMatchedSkills() { return matchedSkills; }
+}
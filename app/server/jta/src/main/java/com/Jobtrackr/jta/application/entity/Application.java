@@ -17,6 +17,14 @@ import java.util.UUID;
 @Table(name = "applications",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = {"job_id", "candidate_id"})
+        },
+        indexes = {
+                @Index(name = "idx_applications_candidate_applied_at",
+                        columnList = "candidate_id, applied_at, id"),
+                @Index(name = "idx_applications_job_applied_at",
+                        columnList = "job_id, applied_at, id"),
+                @Index(name = "idx_applications_job_status_applied_at",
+                        columnList = "job_id, status, applied_at, id")
         })
 public class Application {
 
@@ -24,11 +32,11 @@ public class Application {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "job_id")
     private Job job;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "candidate_id")
     private User candidate;
 
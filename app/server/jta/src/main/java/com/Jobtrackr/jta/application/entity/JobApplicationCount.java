@@ -0,0 +1,41 @@
+package com.Jobtrackr.jta.application.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Denormalized number of applications per job and status, kept in step with
+ * {@code applications} by {@link com.Jobtrackr.jta.application.service.ApplicationCounters}.
+ */
+@Entity
+@Table(name = "job_application_counts")
+@IdClass(JobApplicationCount.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class JobApplicationCount {
+
+    @Id
+    private UUID jobId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private ApplicationStatus status;
+
+    private long count;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID jobId;
+        private ApplicationStatus status;
+    }
+}
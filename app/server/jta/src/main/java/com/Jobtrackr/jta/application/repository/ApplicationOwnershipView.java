@@ -0,0 +1,13 @@
+package com.Jobtrackr.jta.application.repository;
+
+import com.Jobtrackr.jta.Job.entity.JobStatus;
+import com.Jobtrackr.jta.application.entity.ApplicationStatus;
+
+import java.util.UUID;
+
+public interface ApplicationOwnershipView {
+    UUID getId();
+    ApplicationStatus getStatus();
+    UUID getRecruiterId();
+    JobStatus getJobStatus();
+}
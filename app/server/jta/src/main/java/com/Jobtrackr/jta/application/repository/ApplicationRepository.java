@@ -1,10 +1,20 @@
 package com.Jobtrackr.jta.application.repository;
 
+import com.Jobtrackr.jta.application.dto.ApplicationResponse;
+import com.Jobtrackr.jta.application.dto.CandidateApplicationResponse;
 import com.Jobtrackr.jta.application.entity.Application;
+import com.Jobtrackr.jta.application.entity.ApplicationStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,8 +25,89 @@ public interface ApplicationRepository
 
     List<Application> findByCandidateId(UUID candidateId);
 
-    List<Application> findByJobId(UUID jobId);
     Page<Application> findByCandidateId(UUID candidateId, Pageable pageable);
 
+    @Query(value = "select new com.Jobtrackr.jta.application.dto.CandidateApplicationResponse(" +
+            "a.id, j.title, c.name, a.status, a.appliedAt) " +
+            "from Application a join a.job j join j.company c where a.candidate.id = :candidateId",
+            countQuery = "select count(a) from Application a where a.candidate.id = :candidateId")
+    Page<CandidateApplicationResponse> findListRowsByCandidateId(@Param("candidateId") UUID candidateId,
+                                                                 Pageable pageable);
+
+    @Query("select new com.Jobtrackr.jta.application.dto.CandidateApplicationResponse(" +
+            "a.id, j.title, c.name, a.status, a.appliedAt) " +
+            "from Application a join a.job j join j.company c where a.candidate.id = :candidateId " +
+            "order by a.appliedAt desc, a.id desc")
+    List<CandidateApplicationResponse> findFeedByCandidateId(@Param("candidateId") UUID candidateId,
+                                                             Limit limit);
+
+    @Query("select new com.Jobtrackr.jta.application.dto.CandidateApplicationResponse(" +
+            "a.id, j.title, c.name, a.status, a.appliedAt) " +
+            "from Application a join a.job j join j.company c where a.candidate.id = :candidateId " +
+            "and (a.appliedAt < :appliedAt or (a.appliedAt = :appliedAt and a.id < :id)) " +
+            "order by a.appliedAt desc, a.id desc")
+    List<CandidateApplicationResponse> findFeedByCandidateIdAfter(@Param("candidateId") UUID candidateId,
+                                                 @Param("appliedAt") LocalDateTime appliedAt,
+                                                 @Param("id") UUID id,
+                                                 Limit limit);
+
+    @Query("select new com.Jobtrackr.jta.application.dto.ApplicationResponse(" +
+            "a.id, c.id, c.email, coalesce(c.name, c.email), a.status, a.appliedAt) " +
+            "from Application a join a.candidate c where a.job.id = :jobId " +
+            "order by a.appliedAt desc, a.id desc")
+    List<ApplicationResponse> findApplicantsByJobId(@Param("jobId") UUID jobId, Limit limit);
+
+    @Query("select new com.Jobtrackr.jta.application.dto.ApplicationResponse(" +
+            "a.id, c.id, c.email, coalesce(c.name, c.email), a.status, a.appliedAt) " +
+            "from Application a join a.candidate c where a.job.id = :jobId and c.id in :candidateIds")
+    List<ApplicationResponse> findApplicantsByJobIdAndCandidateIdIn(@Param("jobId") UUID jobId,
+                                                                   @Param("candidateIds") Collection<UUID> candidateIds);
+
+    @Query("select new com.Jobtrackr.jta.application.dto.ApplicationResponse(" +
+            "a.id, c.id, c.email, coalesce(c.name, c.email), a.status, a.appliedAt) " +
+            "from Application a join a.candidate c where a.job.id = :jobId " +
+            "and (a.appliedAt < :appliedAt or (a.appliedAt = :appliedAt and a.id < :id)) " +
+            "order by a.appliedAt desc, a.id desc")
+    List<ApplicationResponse> findApplicantsByJobIdAfter(@Param("jobId") UUID jobId,
+                                                         @Param("appliedAt") LocalDateTime appliedAt,
+                                                         @Param("id") UUID id,
+                                                         Limit limit);
+
+    @Query("select new com.Jobtrackr.jta.application.dto.ApplicationResponse(" +
+            "a.id, c.id, c.email, coalesce(c.name, c.email), a.status, a.appliedAt) " +
+            "from Application a join a.candidate c where a.job.id = :jobId and a.status = :status " +
+            "order by a.appliedAt desc, a.id desc")
+    List<ApplicationResponse> findApplicantsByJobIdAndStatus(@Param("jobId") UUID jobId,
+                                                             @Param("status") ApplicationStatus status,
+                                                             Limit limit);
+
+    @Query("select new com.Jobtrackr.jta.application.dto.ApplicationResponse(" +
+            "a.id, c.id, c.email, coalesce(c.name, c.email), a.status, a.appliedAt) " +
+            "from Application a join a.candidate c where a.job.id = :jobId and a.status = :status " +
+            "and (a.appliedAt < :appliedAt or (a.appliedAt = :appliedAt and a.id < :id)) " +
+            "order by a.appliedAt desc, a.id desc")
+    List<ApplicationResponse> findApplicantsByJobIdAndStatusAfter(@Param("jobId") UUID jobId,
+                                                                  @Param("status") ApplicationStatus status,
+                                                                  @Param("appliedAt") LocalDateTime appliedAt,
+                                                                  @Param("id") UUID id,
+                                                                  Limit limit);
+
+    @Query("select a.id as id, a.status as status, j.recruiter.id as recruiterId, j.status as jobStatus " +
+            "from Application a join a.job j where a.id in :ids")
+    List<ApplicationOwnershipView> findOwnershipByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Moves the application to {@code to} only if it is still in {@code from}, so
+     * concurrent updates cannot both count the same transition.
+     */
+    @Modifying
+    @Transactional
+    @Query("update Application a set a.status = :to, a.updatedAt = :updatedAt " +
+            "where a.id = :id and a.status = :from")
+    int updateStatusIfCurrent(@Param("id") UUID id,
+                              @Param("from") ApplicationStatus from,
+                              @Param("to") ApplicationStatus to,
+                              @Param("updatedAt") LocalDateTime updatedAt);
+
 }
 
@@ -0,0 +1,146 @@
+package com.Jobtrackr.jta.application.service;
+
+import com.Jobtrackr.jta.application.entity.ApplicationStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-job application counts by status. Every change is applied to
+ * {@code job_application_counts} in the caller's transaction and mirrored into an
+ * in-memory copy once that transaction commits, so reading the counts never touches
+ * the database.
+ *
+ * The table is built from {@code applications} on first start; after that it is only
+ * adjusted incrementally.
+ */
+@Component
+public class ApplicationCounters {
+
+    private static final ApplicationStatus[] STATUSES = ApplicationStatus.values();
+
+    private static final String ADJUST =
+            "insert into job_application_counts (job_id, status, count) values (?, ?, ?) " +
+            "on conflict (job_id, status) do update set count = job_application_counts.count + excluded.count";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentHashMap<UUID, AtomicLongArray> counts = new ConcurrentHashMap<>();
+
+    // Taking the EntityManagerFactory makes this run after the schema update.
+    public ApplicationCounters(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void load() {
+        Boolean empty = jdbcTemplate.queryForObject(
+                "select not exists (select 1 from job_application_counts)", Boolean.class);
+        if (Boolean.TRUE.equals(empty)) {
+            int rows = jdbcTemplate.update(
+                    "insert into job_application_counts (job_id, status, count) " +
+                    "select job_id, status, count(*) from applications where status is not null " +
+                    "group by job_id, status");
+            System.out.println("Backfilled " + rows + " application counters");
+        }
+        jdbcTemplate.query("select job_id, status, count from job_application_counts", rs -> {
+            add(rs.getObject("job_id", UUID.class), ApplicationStatus.valueOf(rs.getString("status")),
+                    rs.getLong("count"));
+        });
+    }
+
+    /**
+     * Records applications of a job moving from one status to another; {@code from}
+     * is null for new applications.
+     */
+    public void moved(UUID jobId, ApplicationStatus from, ApplicationStatus to) {
+        if (from == to) {
+            return;
+        }
+        if (from != null) {
+            jdbcTemplate.update(ADJUST, jobId, from.name(), -1);
+        }
+        jdbcTemplate.update(ADJUST, jobId, to.name(), 1);
+        mirror(jobId, from, to, 1);
+    }
+
+    /**
+     * Records many applications moving to {@code to}: for each job, how many left
+     * each previous status. All counter rows are adjusted in one JDBC batch.
+     */
+    public void movedAll(Map<UUID, Map<ApplicationStatus, Long>> previousByJob, ApplicationStatus to) {
+        List<Object[]> rows = new ArrayList<>();
+        previousByJob.forEach((jobId, previous) -> {
+            long moved = 0;
+            for (Map.Entry<ApplicationStatus, Long> entry : previous.entrySet()) {
+                if (entry.getKey() != to) {
+                    rows.add(new Object[]{jobId, entry.getKey().name(), -entry.getValue()});
+                    moved += entry.getValue();
+                }
+            }
+            if (moved > 0) {
+                rows.add(new Object[]{jobId, to.name(), moved});
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADJUST, rows);
+        previousByJob.forEach((jobId, previous) ->
+                previous.forEach((from, applications) -> mirror(jobId, from, to, applications)));
+    }
+
+    /**
+     * Updates only the in-memory copy, for callers that adjusted
+     * {@code job_application_counts} in their own statement. Deferred until commit
+     * when called inside a transaction.
+     */
+    public void mirror(UUID jobId, ApplicationStatus from, ApplicationStatus to, long applications) {
+        if (from == to || applications == 0) {
+            return;
+        }
+        Runnable apply = () -> {
+            if (from != null) {
+                add(jobId, from, -applications);
+            }
+            add(jobId, to, applications);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Counts for every status, zero included.
+     */
+    public Map<ApplicationStatus, Long> countsFor(UUID jobId) {
+        Map<ApplicationStatus, Long> result = new EnumMap<>(ApplicationStatus.class);
+        AtomicLongArray values = counts.get(jobId);
+        for (ApplicationStatus status : STATUSES) {
+            result.put(status, values != null ? values.get(status.ordinal()) : 0L);
+        }
+        return result;
+    }
+
+    private void add(UUID jobId, ApplicationStatus status, long delta) {
+        counts.computeIfAbsent(jobId, id -> new AtomicLongArray(STATUSES.length))
+                .addAndGet(status.ordinal(), delta);
+    }
+}
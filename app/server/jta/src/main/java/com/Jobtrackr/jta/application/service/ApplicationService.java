@@ -4,139 +4,265 @@ import com.Jobtrackr.jta.Job.entity.Job;
 import com.Jobtrackr.jta.Job.entity.JobStatus;
 import com.Jobtrackr.jta.Job.repository.JobRepo;
 import com.Jobtrackr.jta.application.dto.ApplicationResponse;
+import com.Jobtrackr.jta.application.dto.ApplicationStatusEvent;
+import com.Jobtrackr.jta.application.dto.BulkStatusUpdateResponse;
 import com.Jobtrackr.jta.application.dto.CandidateApplicationResponse;
+import com.Jobtrackr.jta.application.dto.RankedApplicantResponse;
 import com.Jobtrackr.jta.application.entity.Application;
 import com.Jobtrackr.jta.application.entity.ApplicationStatus;
+import com.Jobtrackr.jta.application.repository.ApplicationOwnershipView;
 import com.Jobtrackr.jta.application.repository.ApplicationRepository;
+import com.Jobtrackr.jta.config.AuthPrincipal;
 import com.Jobtrackr.jta.exception.BadRequestException;
+import com.Jobtrackr.jta.exception.ConflictException;
 import com.Jobtrackr.jta.exception.NotFoundException;
 import com.Jobtrackr.jta.exception.UnauthorizedActionException;
+import com.Jobtrackr.jta.export.ExportFormat;
+import com.Jobtrackr.jta.export.JdbcExporter;
+import com.Jobtrackr.jta.pagination.Cursor;
+import com.Jobtrackr.jta.pagination.CursorSlice;
+import com.Jobtrackr.jta.skill.service.SkillDictionary;
+import com.Jobtrackr.jta.skill.service.SkillMatcher;
 import com.Jobtrackr.jta.user.entity.Role;
-import com.Jobtrackr.jta.user.entity.User;
-import com.Jobtrackr.jta.user.repository.UserRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class ApplicationService {
 
+    /*
+     * The role and job status are read in the same snapshot the insert runs in. A
+     * duplicate is absorbed by the (job_id, candidate_id) unique constraint instead
+     * of surfacing as a constraint violation, and the counter row is bumped only when
+     * a row was actually inserted.
+     */
+    private static final String APPLY =
+            "with candidate as (select id, role from users where id = ?), " +
+            "job as (select id, status from jobs where id = ?), " +
+            "inserted as (" +
+            "  insert into applications (id, job_id, candidate_id, status, applied_at) " +
+            "  select ?, job.id, candidate.id, 'APPLIED', ? from candidate, job " +
+            "  where candidate.role = 'CANDIDATE' and job.status = 'OPEN' " +
+            "  on conflict (job_id, candidate_id) do nothing " +
+            "  returning id, job_id), " +
+            "counted as (" +
+            "  insert into job_application_counts (job_id, status, count) " +
+            "  select job_id, 'APPLIED', 1 from inserted " +
+            "  on conflict (job_id, status) do update set count = job_application_counts.count + excluded.count) " +
+            "select (select role from candidate) as candidate_role, " +
+            "(select status from job) as job_status, " +
+            "(select id from inserted) as application_id";
+
+    /*
+     * Rows are locked and re-checked before they change, so the returned previous
+     * status is the one actually replaced even under concurrent updates.
+     */
+    private static final String BULK_UPDATE_STATUS =
+            "with target as (" +
+            "  select a.id, a.job_id, a.status as previous from applications a join jobs j on j.id = a.job_id " +
+            "  where a.id = any (?) and j.recruiter_id = ? and j.status = 'OPEN' and a.status <> ? " +
+            "  for update of a) " +
+            "update applications a set status = ?, updated_at = ? from target where a.id = target.id " +
+            "returning a.id, target.job_id, a.candidate_id, target.previous, a.updated_at";
+
+    private static final int MAX_BULK_STATUS_UPDATES = 500;
+    private static final int MAX_RANKED_APPLICANTS = 100;
+
+    private enum ApplyOutcome {
+        APPLIED, ALREADY_APPLIED, USER_NOT_FOUND, NOT_A_CANDIDATE, JOB_NOT_FOUND, JOB_NOT_OPEN
+    }
+
     private final ApplicationRepository applicationRepository;
     private final JobRepo jobRepository;
-    private final UserRepository userRepository;
+    private final JdbcExporter jdbcExporter;
+    private final ApplicationCounters applicationCounters;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationStatusBroadcaster statusBroadcaster;
+    private final SkillDictionary skillDictionary;
+    private final SkillMatcher skillMatcher;
 
     public ApplicationService(ApplicationRepository applicationRepository,
                               JobRepo jobRepository,
-                              UserRepository userRepository) {
+                              JdbcExporter jdbcExporter,
+                              ApplicationCounters applicationCounters,
+                              JdbcTemplate jdbcTemplate,
+                              ApplicationStatusBroadcaster statusBroadcaster,
+                              SkillDictionary skillDictionary,
+                              SkillMatcher skillMatcher) {
         this.applicationRepository = applicationRepository;
         this.jobRepository = jobRepository;
-        this.userRepository = userRepository;
+        this.jdbcExporter = jdbcExporter;
+        this.applicationCounters = applicationCounters;
+        this.jdbcTemplate = jdbcTemplate;
+        this.statusBroadcaster = statusBroadcaster;
+        this.skillDictionary = skillDictionary;
+        this.skillMatcher = skillMatcher;
     }
 
 
 public void apply(UUID jobId) {
 
     // 1️⃣ Extract authenticated user
-    Authentication authentication =
-            SecurityContextHolder.getContext().getAuthentication();
-
-    String email = authentication.getName();
-
-
-
-
-    User candidate = userRepository.findByEmail(email)
-            .orElseThrow(() -> new NotFoundException("User not found"));
-
-    // 2️⃣ Ensure role is CANDIDATE
-    if (candidate.getRole() != Role.CANDIDATE) {
-        throw new UnauthorizedActionException("Only candidates can apply");
+    AuthPrincipal candidate = AuthPrincipal.require(Role.CANDIDATE, "Only candidates can apply");
+
+    // 2️⃣ Check candidate and job, insert and count the application: one round trip
+    ApplyOutcome outcome = jdbcTemplate.queryForObject(APPLY, (rs, row) -> {
+        String role = rs.getString("candidate_role");
+        String jobStatus = rs.getString("job_status");
+        if (role == null) {
+            return ApplyOutcome.USER_NOT_FOUND;
+        }
+        if (!Role.CANDIDATE.name().equals(role)) {
+            return ApplyOutcome.NOT_A_CANDIDATE;
+        }
+        if (jobStatus == null) {
+            return ApplyOutcome.JOB_NOT_FOUND;
+        }
+        if (!JobStatus.OPEN.name().equals(jobStatus)) {
+            return ApplyOutcome.JOB_NOT_OPEN;
+        }
+        return rs.getObject("application_id") != null ? ApplyOutcome.APPLIED : ApplyOutcome.ALREADY_APPLIED;
+    }, candidate.getUserId(), jobId, UUID.randomUUID(), Timestamp.valueOf(LocalDateTime.now()));
+
+    // 3️⃣ Report anything but success
+    switch (outcome) {
+        case USER_NOT_FOUND -> throw new NotFoundException("User not found");
+        case NOT_A_CANDIDATE -> throw new UnauthorizedActionException("Only candidates can apply");
+        case JOB_NOT_FOUND -> throw new NotFoundException("Job not found");
+        case JOB_NOT_OPEN -> throw new BadRequestException("Job is not open");
+        case ALREADY_APPLIED -> throw new BadRequestException("Already applied to this job");
+        case APPLIED -> applicationCounters.mirror(jobId, null, ApplicationStatus.APPLIED, 1);
     }
+}
 
-    // 3️⃣ Fetch job
-    Job job = jobRepository.findById(jobId)
-            .orElseThrow(() -> new NotFoundException("Job not found"));
+    /**
+     * Newest applicants first, one keyset page at a time, optionally only those in
+     * {@code status}. Candidate name and email come from the same query.
+     */
+    public CursorSlice<ApplicationResponse> getApplicationsForJob(UUID jobId, ApplicationStatus status,
+                                                                  String cursorToken, int size) {
+        Cursor cursor = Cursor.decode(cursorToken);
+        requireOwnJob(currentRecruiter("Only recruiters can view job applications"), jobId);
+
+        List<ApplicationResponse> rows;
+        if (status == null) {
+            rows = cursor == null
+                    ? applicationRepository.findApplicantsByJobId(jobId, Cursor.probeLimit(size))
+                    : applicationRepository.findApplicantsByJobIdAfter(jobId,
+                            cursor.getTimestamp(), cursor.getId(), Cursor.probeLimit(size));
+        } else {
+            rows = cursor == null
+                    ? applicationRepository.findApplicantsByJobIdAndStatus(jobId, status, Cursor.probeLimit(size))
+                    : applicationRepository.findApplicantsByJobIdAndStatusAfter(jobId, status,
+                            cursor.getTimestamp(), cursor.getId(), Cursor.probeLimit(size));
+        }
 
-    // 4️⃣ Check job is open
-    if (job.getStatus() != JobStatus.OPEN) {
-        throw new BadRequestException("Job is not open");
+        return Cursor.slice(rows, size, row -> new Cursor(row.getAppliedAt(), row.getApplicationId()));
     }
 
-    // 5️⃣ Prevent duplicate
-    boolean alreadyApplied =
-            applicationRepository.existsByJobIdAndCandidateId(
-                    jobId,
-                    candidate.getId()
-            );
+    /**
+     * The best matching applicants to the job, most shared skills first and newest
+     * first among equals. Every applicant is scored; details are loaded only for the
+     * ones returned.
+     */
+    public List<RankedApplicantResponse> getRankedApplicantsForJob(UUID jobId, int size) {
+        requireOwnJob(currentRecruiter("Only recruiters can view job applications"), jobId);
+        int limit = Math.min(Math.max(size, 1), MAX_RANKED_APPLICANTS);
+
+        long[] required = SkillDictionary.bits(
+                jdbcTemplate.queryForObject("select skills from jobs where id = ?", byte[].class, jobId));
+        List<UUID> candidateIds = jdbcTemplate.queryForList("select candidate_id from applications where job_id = ? " +
+                "order by applied_at desc, id desc", UUID.class, jobId);
+
+        List<SkillMatcher.Match> matches = skillMatcher.rankCandidates(candidateIds, required, limit);
+        Map<UUID, ApplicationResponse> applicants = new HashMap<>();
+        for (ApplicationResponse applicant : applicationRepository.findApplicantsByJobIdAndCandidateIdIn(jobId,
+                matches.stream().map(match -> candidateIds.get(match.getIndex())).toList())) {
+            applicants.put(applicant.getCandidateId(), applicant);
+        }
 
-    if (alreadyApplied) {
-        throw new BadRequestException("Already applied to this job");
-    }
-    if (job.getStatus() != JobStatus.OPEN) {
-        throw new BadRequestException("Job is closed");
+        int jobSkillCount = SkillMatcher.count(required);
+        List<RankedApplicantResponse> ranked = new ArrayList<>(matches.size());
+        for (SkillMatcher.Match match : matches) {
+            ApplicationResponse applicant = applicants.get(candidateIds.get(match.getIndex()));
+            if (applicant == null) {
+                continue;
+            }
+            long[] matched = SkillMatcher.intersection(
+                    skillMatcher.candidateSkills(candidateIds.get(match.getIndex())), required);
+            ranked.add(new RankedApplicantResponse(applicant, match.getMatched(), jobSkillCount,
+                    skillDictionary.names(matched)));
+        }
+        return ranked;
     }
 
-    // 6️⃣ Save application
-    Application application = new Application();
-    application.setJob(job);
-    application.setCandidate(candidate);
-
-    applicationRepository.save(application);
-}
-
-    public List<ApplicationResponse> getApplicationsForJob(UUID jobId) {
-        Authentication authentication =
-                SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        User recruiter = userRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("User not found"));
-
-        if (recruiter.getRole() != Role.RECRUITER) {
-            throw new UnauthorizedActionException("Only recruiters can view job applications");
+    /**
+     * The same rows as {@link #getApplicationsForJob}, all of them, streamed from a
+     * database cursor for jobs too large to page through.
+     */
+    public StreamingResponseBody streamApplicationsForJob(UUID jobId, ApplicationStatus status, ExportFormat format) {
+        requireOwnJob(currentRecruiter("Only recruiters can view job applications"), jobId);
+
+        String sql = "select a.id as \"applicationId\", c.id as \"candidateId\", c.email as \"candidateEmail\", " +
+                "coalesce(c.name, c.email) as \"candidateName\", a.status, a.applied_at as \"appliedAt\" " +
+                "from applications a join users c on c.id = a.candidate_id where a.job_id = ?";
+        String order = " order by a.applied_at desc, a.id desc";
+        if (status == null) {
+            return jdbcExporter.stream(format, sql + order, jobId);
         }
+        return jdbcExporter.stream(format, sql + " and a.status = ?" + order, jobId, status.name());
+    }
 
-        Job job = jobRepository.findById(jobId)
-                .orElseThrow(() -> new NotFoundException("Job not found"));
-
-        if (!job.getRecruiter().getId().equals(recruiter.getId())) {
-            throw new UnauthorizedActionException("Unauthorized access to this job's applications");
+    /**
+     * Streams the applications to the recruiter's jobs, optionally narrowed to one
+     * job and one status.
+     */
+    public StreamingResponseBody exportApplications(ExportFormat format, UUID jobId, ApplicationStatus status) {
+        AuthPrincipal recruiter = currentRecruiter("Only recruiters can export job applications");
+
+        StringBuilder sql = new StringBuilder(
+                "select a.id, a.job_id, j.title as job_title, a.candidate_id, c.name as candidate_name, " +
+                "c.email as candidate_email, a.status, a.applied_at, a.updated_at " +
+                "from applications a join jobs j on j.id = a.job_id join users c on c.id = a.candidate_id " +
+                "where j.recruiter_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(recruiter.getUserId());
+        if (jobId != null) {
+            requireOwnJob(recruiter, jobId);
+            sql.append(" and a.job_id = ?");
+            args.add(jobId);
         }
-
-        List<Application> applications = applicationRepository.findByJobId(jobId);
-
-        return applications.stream()
-                .map(app -> new ApplicationResponse(
-                        app.getId(),
-                        app.getCandidate().getId(),
-                        app.getCandidate().getEmail(),
-                        app.getCandidate().getName() != null ? app.getCandidate().getName() : app.getCandidate().getEmail(),
-                        app.getStatus(),
-                        app.getAppliedAt()
-                ))
-                .toList();
+        if (status != null) {
+            sql.append(" and a.status = ?");
+            args.add(status.name());
+        }
+        return jdbcExporter.stream(format, sql.toString(), args.toArray());
     }
 
+@Transactional
 public void updateStatus(UUID applicationId,
                          ApplicationStatus newStatus) {
 
-    // 1️⃣ Extract authenticated user
-    Authentication authentication =
-            SecurityContextHolder.getContext().getAuthentication();
-
-    String email = authentication.getName();
-
-    User recruiter = userRepository.findByEmail(email)
-            .orElseThrow(() -> new NotFoundException("User not found"));
-
-    // 2️⃣ Ensure recruiter role
-    if (recruiter.getRole() != Role.RECRUITER) {
-        throw new UnauthorizedActionException("Only recruiters can update status");
-    }
+    // 1️⃣ Extract authenticated user and 2️⃣ ensure recruiter role
+    AuthPrincipal recruiter = AuthPrincipal.require(Role.RECRUITER, "Only recruiters can update status");
 
     // 3️⃣ Fetch application
     Application application = applicationRepository.findById(applicationId)
@@ -145,7 +271,7 @@ public void updateStatus(UUID applicationId,
     Job job = application.getJob();
 
     // 4️⃣ Ensure recruiter owns the job
-    if (!job.getRecruiter().getId().equals(recruiter.getId())) {
+    if (!job.getRecruiter().getId().equals(recruiter.getUserId())) {
         throw new UnauthorizedActionException("Unauthorized action");
     }
 
@@ -155,40 +281,142 @@ public void updateStatus(UUID applicationId,
     }
 
     // 6️⃣ Update status
-    application.setStatus(newStatus);
+    ApplicationStatus previous = application.getStatus();
+    if (previous == newStatus) {
+        return;
+    }
+    LocalDateTime updatedAt = LocalDateTime.now();
+    int updated = applicationRepository.updateStatusIfCurrent(
+            applicationId, previous, newStatus, updatedAt);
+    if (updated == 0) {
+        throw new ConflictException("Application status was changed by another request");
+    }
+    applicationCounters.moved(job.getId(), previous, newStatus);
 
-    applicationRepository.save(application);
+    // 7️⃣ Tell the candidate's open event streams once this commits
+    statusBroadcaster.publish(application.getCandidate().getId(),
+            new ApplicationStatusEvent(applicationId, job.getId(), previous, newStatus, updatedAt));
 }
+    /**
+     * Moves many applications to one status: one query checks ownership of all of
+     * them, one UPDATE changes every eligible row, and each id gets its own outcome.
+     */
+    @Transactional
+    public BulkStatusUpdateResponse updateStatuses(List<UUID> applicationIds, ApplicationStatus newStatus) {
+        if (newStatus == null) {
+            throw new BadRequestException("status is required");
+        }
+        if (applicationIds == null || applicationIds.isEmpty()) {
+            throw new BadRequestException("applicationIds must not be empty");
+        }
+        List<UUID> ids = applicationIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.size() > MAX_BULK_STATUS_UPDATES) {
+            throw new BadRequestException("At most " + MAX_BULK_STATUS_UPDATES + " applications can be updated at once");
+        }
+
+        AuthPrincipal recruiter = currentRecruiter("Only recruiters can update status");
+
+        Map<UUID, BulkStatusUpdateResponse.Outcome> outcomes = new HashMap<>();
+        Set<UUID> eligible = new HashSet<>();
+        for (ApplicationOwnershipView row : applicationRepository.findOwnershipByIdIn(ids)) {
+            if (!recruiter.getUserId().equals(row.getRecruiterId())) {
+                outcomes.put(row.getId(), BulkStatusUpdateResponse.Outcome.FORBIDDEN);
+            } else if (row.getJobStatus() != JobStatus.OPEN) {
+                outcomes.put(row.getId(), BulkStatusUpdateResponse.Outcome.JOB_NOT_OPEN);
+            } else if (row.getStatus() == newStatus) {
+                outcomes.put(row.getId(), BulkStatusUpdateResponse.Outcome.UNCHANGED);
+            } else {
+                eligible.add(row.getId());
+            }
+        }
+
+        int updated = 0;
+        if (!eligible.isEmpty()) {
+            Map<UUID, Map<ApplicationStatus, Long>> previousByJob = new HashMap<>();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(BULK_UPDATE_STATUS);
+                statement.setArray(1, connection.createArrayOf("uuid", eligible.toArray()));
+                statement.setObject(2, recruiter.getUserId());
+                statement.setString(3, newStatus.name());
+                statement.setString(4, newStatus.name());
+                statement.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                return statement;
+            }, rs -> {
+                UUID id = rs.getObject("id", UUID.class);
+                UUID jobId = rs.getObject("job_id", UUID.class);
+                ApplicationStatus previous = ApplicationStatus.valueOf(rs.getString("previous"));
+                outcomes.put(id, BulkStatusUpdateResponse.Outcome.UPDATED);
+                previousByJob.computeIfAbsent(jobId, job -> new EnumMap<>(ApplicationStatus.class))
+                        .merge(previous, 1L, Long::sum);
+                statusBroadcaster.publish(rs.getObject("candidate_id", UUID.class), new ApplicationStatusEvent(
+                        id, jobId, previous, newStatus, rs.getTimestamp("updated_at").toLocalDateTime()));
+            });
+            applicationCounters.movedAll(previousByJob, newStatus);
+            updated = previousByJob.values().stream()
+                    .flatMap(previous -> previous.values().stream())
+                    .mapToInt(Long::intValue)
+                    .sum();
+        }
+
+        List<BulkStatusUpdateResponse.Result> results = ids.stream()
+                .map(id -> new BulkStatusUpdateResponse.Result(id, outcomes.getOrDefault(id,
+                        eligible.contains(id)
+                                ? BulkStatusUpdateResponse.Outcome.CONFLICT
+                                : BulkStatusUpdateResponse.Outcome.NOT_FOUND)))
+                .toList();
+        return new BulkStatusUpdateResponse(updated, results);
+    }
+
     public Page<CandidateApplicationResponse> getMyApplications(Pageable pageable) {
 
         // 1️⃣ Extract user from JWT
-        Authentication authentication =
-                SecurityContextHolder.getContext().getAuthentication();
+        AuthPrincipal candidate =
+                AuthPrincipal.require(Role.CANDIDATE, "Only candidates can view their applications");
+
+        return applicationRepository.findListRowsByCandidateId(
+                candidate.getUserId(),
+                pageable
+        );
+    }
 
-        String email = authentication.getName();
+    /**
+     * Opens a server-sent event stream of the candidate's application status changes,
+     * replacing polling of {@link #getMyApplications}.
+     *
+     * Nothing is read through the repositories here: with open session in view, an
+     * entity manager used here would hold its pooled connection for as long as the
+     * stream stays open.
+     */
+    public SseEmitter subscribeToStatusChanges() {
+        AuthPrincipal candidate =
+                AuthPrincipal.require(Role.CANDIDATE, "Only candidates can follow their applications");
+        return statusBroadcaster.subscribe(candidate.getUserId());
+    }
 
-        User candidate = userRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+    public CursorSlice<CandidateApplicationResponse> getMyApplicationsFeed(String cursorToken, int size) {
+        Cursor cursor = Cursor.decode(cursorToken);
 
-        if (candidate.getRole() != Role.CANDIDATE) {
-            throw new UnauthorizedActionException("Only candidates can view their applications");
-        }
+        UUID candidateId = AuthPrincipal.require(Role.CANDIDATE, "Only candidates can view their applications")
+                .getUserId();
 
-        Page<Application> applications =
-                applicationRepository.findByCandidateId(
-                        candidate.getId(),
-                        pageable
-                );
+        List<CandidateApplicationResponse> rows = cursor == null
+                ? applicationRepository.findFeedByCandidateId(candidateId, Cursor.probeLimit(size))
+                : applicationRepository.findFeedByCandidateIdAfter(candidateId,
+                        cursor.getTimestamp(), cursor.getId(), Cursor.probeLimit(size));
 
-        return applications.map(app ->
-                new CandidateApplicationResponse(
-                        app.getId(),
-                        app.getJob().getTitle(),
-                        app.getJob().getCompany().getName(),
-                        app.getStatus(),
-                        app.getAppliedAt()
-                )
-        );
+        return Cursor.slice(rows, size, row -> new Cursor(row.getAppliedAt(), row.getApplicationId()));
+    }
+
+    private AuthPrincipal currentRecruiter(String message) {
+        return AuthPrincipal.require(Role.RECRUITER, message);
+    }
+
+    private void requireOwnJob(AuthPrincipal recruiter, UUID jobId) {
+        UUID owner = jobRepository.findRecruiterIdById(jobId)
+                .orElseThrow(() -> new NotFoundException("Job not found"));
+        if (!owner.equals(recruiter.getUserId())) {
+            throw new UnauthorizedActionException("Unauthorized access to this job's applications");
+        }
     }
 
 
@@ -0,0 +1,348 @@
+package com.Jobtrackr.jta.application.service;
+
+import com.Jobtrackr.jta.application.dto.ApplicationStatusEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes application status changes to the affected candidate's open SSE connections.
+ *
+ * An idle connection costs one {@link SseEmitter} and a small {@link Subscriber}; no
+ * thread is held while nothing is being sent. Sends happen on a small dispatch pool,
+ * one drain task per connection with pending events, so a slow client never blocks
+ * the request that changed the status. Each connection buffers at most
+ * {@value #MAX_QUEUED_EVENTS} events; a client that falls further behind is
+ * disconnected and is expected to reconnect and reload its applications once.
+ *
+ * A comment line is sent every {@code applications.events.heartbeat-ms} so proxies
+ * keep idle connections open and dead ones are noticed.
+ *
+ * Sends are blocking writes, so a client that stops reading without closing its
+ * socket can hold a dispatch thread. A send blocked for longer than
+ * {@code applications.events.send-timeout-ms} gets its connection abandoned and the
+ * pool gains a thread in its place, up to {@value #MAX_ABANDONED_SENDS} at a time, so
+ * other connections keep being served. The blocked thread itself is only released by
+ * the connector's write timeout ({@code server.tomcat.connection-timeout}); beyond
+ * that many stuck clients at once, delivery slows again until their writes time out.
+ */
+@Component
+public class ApplicationStatusBroadcaster {
+
+    private static final long TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final int MAX_QUEUED_EVENTS = 32;
+    private static final int MAX_CONNECTIONS_PER_CANDIDATE = 5;
+    private static final int DISPATCH_THREADS = 4;
+    private static final int MAX_ABANDONED_SENDS = 32;
+
+    private static final Subscriber[] NONE = new Subscriber[0];
+    private static final Object HEARTBEAT = new Object();
+
+    private final ConcurrentHashMap<UUID, Subscriber[]> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor dispatcher = new ThreadPoolExecutor(
+            DISPATCH_THREADS, DISPATCH_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "application-events");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private final long sendTimeoutNanos;
+    private int abandonedSends;
+
+    public ApplicationStatusBroadcaster(@Value("${applications.events.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+    }
+
+    public SseEmitter subscribe(UUID candidateId) {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(candidateId, emitter);
+        emitter.onCompletion(() -> discard(subscriber));
+        emitter.onTimeout(() -> discard(subscriber));
+        emitter.onError(error -> discard(subscriber));
+
+        Subscriber[] evicted = new Subscriber[1];
+        subscribers.compute(candidateId, (id, current) -> {
+            Subscriber[] existing = current != null ? current : NONE;
+            if (existing.length >= MAX_CONNECTIONS_PER_CANDIDATE) {
+                evicted[0] = existing[0];
+                existing = Arrays.copyOfRange(existing, 1, existing.length);
+            }
+            Subscriber[] next = Arrays.copyOf(existing, existing.length + 1);
+            next[existing.length] = subscriber;
+            return next;
+        });
+        connections.incrementAndGet();
+        if (evicted[0] != null) {
+            close(evicted[0]);
+        }
+        // Flushes the response headers so the client sees the stream open right away.
+        offer(subscriber, HEARTBEAT);
+        return emitter;
+    }
+
+    /**
+     * Queues the event for every connection of the candidate; inside a transaction,
+     * only once it commits.
+     */
+    public void publish(UUID candidateId, ApplicationStatusEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(candidateId, event);
+                }
+            });
+        } else {
+            deliver(candidateId, event);
+        }
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    @Scheduled(fixedRateString = "${applications.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber[] candidateSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : candidateSubscribers) {
+                offer(subscriber, HEARTBEAT);
+            }
+        }
+    }
+
+    /**
+     * Abandons connections whose current send has blocked past the send timeout. Only
+     * the connections being written to are checked, at most one per dispatch thread.
+     */
+    @Scheduled(fixedRate = 1000)
+    public void abandonStuckSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : sending) {
+            synchronized (subscriber) {
+                if (subscriber.sendingSince == 0 || subscriber.abandoned
+                        || now - subscriber.sendingSince < sendTimeoutNanos) {
+                    continue;
+                }
+                subscriber.abandoned = true;
+                subscriber.replaced = addDispatchThread();
+            }
+            System.err.println("Abandoning application event subscriber for candidate " + subscriber.candidateId
+                    + ": send blocked for more than " + TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos) + " ms");
+            close(subscriber);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        for (Subscriber[] candidateSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : candidateSubscribers) {
+                close(subscriber);
+            }
+        }
+    }
+
+    private void deliver(UUID candidateId, ApplicationStatusEvent event) {
+        Subscriber[] candidateSubscribers = subscribers.get(candidateId);
+        if (candidateSubscribers == null) {
+            return;
+        }
+        QueuedEvent queued = new QueuedEvent(sequence.incrementAndGet(), event);
+        for (Subscriber subscriber : candidateSubscribers) {
+            offer(subscriber, queued);
+        }
+    }
+
+    private void offer(Subscriber subscriber, Object item) {
+        boolean schedule;
+        boolean overflow = false;
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return;
+            }
+            if (item == HEARTBEAT && !subscriber.queue.isEmpty()) {
+                // Pending events keep the connection alive just as well.
+                return;
+            }
+            if (subscriber.queue.size() >= MAX_QUEUED_EVENTS) {
+                overflow = true;
+                schedule = false;
+            } else {
+                subscriber.queue.add(item);
+                schedule = !subscriber.draining;
+                subscriber.draining = true;
+            }
+        }
+        if (overflow) {
+            System.err.println("Disconnecting slow application event subscriber for candidate " + subscriber.candidateId);
+            close(subscriber);
+            return;
+        }
+        if (schedule) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Object item;
+            synchronized (subscriber) {
+                item = subscriber.queue.poll();
+                if (item == null || subscriber.closed) {
+                    subscriber.draining = false;
+                    return;
+                }
+                subscriber.sendingSince = System.nanoTime();
+            }
+            sending.add(subscriber);
+            boolean failed = false;
+            try {
+                subscriber.emitter.send(toSse(item));
+            } catch (IOException | IllegalStateException e) {
+                failed = true;
+            }
+            sending.remove(subscriber);
+            boolean closed;
+            boolean replaced;
+            synchronized (subscriber) {
+                subscriber.sendingSince = 0;
+                closed = subscriber.closed;
+                replaced = subscriber.replaced;
+            }
+            if (replaced) {
+                removeDispatchThread();
+            }
+            if (failed || closed) {
+                // Closed while this send was blocked: completing was left to this thread.
+                close(subscriber);
+                return;
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(Object item) {
+        if (item == HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        QueuedEvent queued = (QueuedEvent) item;
+        return SseEmitter.event()
+                .id(Long.toString(queued.id))
+                .name("application-status")
+                .data(queued.event, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Completing takes the emitter's write lock, so it is left to the dispatch thread
+     * when a send is in progress; otherwise the caller would block behind that send.
+     */
+    private void close(Subscriber subscriber) {
+        boolean sendInProgress;
+        synchronized (subscriber) {
+            // Closed in the same step, so no new send can start after this check.
+            subscriber.closed = true;
+            sendInProgress = subscriber.sendingSince != 0;
+        }
+        discard(subscriber);
+        if (sendInProgress) {
+            return;
+        }
+        try {
+            subscriber.emitter.complete();
+        } catch (RuntimeException ignored) {
+            // Already completed or the connection is gone.
+        }
+    }
+
+    private void discard(Subscriber subscriber) {
+        synchronized (subscriber) {
+            subscriber.closed = true;
+            subscriber.queue.clear();
+        }
+        remove(subscriber);
+    }
+
+    private void remove(Subscriber subscriber) {
+        boolean[] removed = new boolean[1];
+        subscribers.computeIfPresent(subscriber.candidateId, (id, current) -> {
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == subscriber) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return current;
+            }
+            removed[0] = true;
+            if (current.length == 1) {
+                return null;
+            }
+            Subscriber[] next = new Subscriber[current.length - 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+            return next;
+        });
+        if (removed[0]) {
+            connections.decrementAndGet();
+        }
+    }
+
+    private boolean addDispatchThread() {
+        synchronized (dispatcher) {
+            if (abandonedSends >= MAX_ABANDONED_SENDS) {
+                return false;
+            }
+            abandonedSends++;
+            dispatcher.setMaximumPoolSize(DISPATCH_THREADS + abandonedSends);
+            dispatcher.setCorePoolSize(DISPATCH_THREADS + abandonedSends);
+            return true;
+        }
+    }
+
+    private void removeDispatchThread() {
+        synchronized (dispatcher) {
+            abandonedSends--;
+            dispatcher.setCorePoolSize(DISPATCH_THREADS + abandonedSends);
+            dispatcher.setMaximumPoolSize(DISPATCH_THREADS + abandonedSends);
+        }
+    }
+
+    private static final class Subscriber {
+        private final UUID candidateId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Object> queue = new ArrayDeque<>(4);
+        private boolean draining;
+        private boolean closed;
+        private boolean abandoned;
+        private boolean replaced;
+        private long sendingSince;
+
+        private Subscriber(UUID candidateId, SseEmitter emitter) {
+            this.candidateId = candidateId;
+            this.emitter = emitter;
+        }
+    }
+
+    private record QueuedEvent(long id, ApplicationStatusEvent event) {
+    }
+}
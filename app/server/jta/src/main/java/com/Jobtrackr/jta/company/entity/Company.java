@@ -27,6 +27,7 @@ public class Company {
     private String name ;
     private String description;
     private String location;
+    private Integer locationId;
     @OneToMany(mappedBy = "company")
     private List<User> recruiter;
 
@@ -4,14 +4,15 @@ import com.Jobtrackr.jta.company.dto.CompanyCreateRequest;
 import com.Jobtrackr.jta.company.dto.CompanyResponse;
 import com.Jobtrackr.jta.company.entity.Company;
 import com.Jobtrackr.jta.company.repository.CompanyRepo;
+import com.Jobtrackr.jta.config.AuthPrincipal;
+import com.Jobtrackr.jta.config.PrincipalCache;
 import com.Jobtrackr.jta.exception.ConflictException;
 import com.Jobtrackr.jta.exception.NotFoundException;
 import com.Jobtrackr.jta.exception.UnauthorizedActionException;
+import com.Jobtrackr.jta.location.service.LocationDictionary;
 import com.Jobtrackr.jta.user.entity.Role;
 import com.Jobtrackr.jta.user.entity.User;
 import com.Jobtrackr.jta.user.repository.UserRepository;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
@@ -23,10 +24,15 @@ public class CompanyService {
 
     private final CompanyRepo companyRepository;
     private final UserRepository userRepository;
+    private final LocationDictionary locationDictionary;
+    private final PrincipalCache principalCache;
 
-    public CompanyService(CompanyRepo companyRepository, UserRepository userRepository) {
+    public CompanyService(CompanyRepo companyRepository, UserRepository userRepository,
+                          LocationDictionary locationDictionary, PrincipalCache principalCache) {
         this.companyRepository = companyRepository;
         this.userRepository=userRepository;
+        this.locationDictionary = locationDictionary;
+        this.principalCache = principalCache;
     }
 
     public CompanyResponse createCompany(CompanyCreateRequest request) {
@@ -38,7 +44,8 @@ public class CompanyService {
         Company company = new Company();
         company.setName(request.getName());
         company.setDescription(request.getDescription());
-        company.setLocation(request.getLocation());
+        company.setLocationId(locationDictionary.intern(request.getLocation()));
+        company.setLocation(locationDictionary.name(company.getLocationId()));
 
         Company saved = companyRepository.save(company);
 
@@ -77,6 +84,8 @@ public class CompanyService {
 
         user.setCompany(company);
         userRepository.save(user);
+        // Tokens issued before now carry the old company.
+        principalCache.invalidate(user.getEmail());
 
         return new CompanyResponse(
                 company.getId(),
@@ -88,12 +97,7 @@ public class CompanyService {
 
     @Transactional
     public CompanyResponse assignCurrentUserToCompany(UUID companyId) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User user = userRepository.findByEmail(auth.getName())
-                .orElseThrow(() -> new NotFoundException("User not found"));
-        if (user.getRole() != Role.RECRUITER) {
-            throw new UnauthorizedActionException("Only recruiters can be assigned to a company");
-        }
-        return assignRecruiter(companyId, user.getId());
+        AuthPrincipal principal = AuthPrincipal.require(Role.RECRUITER, "Only recruiters can be assigned to a company");
+        return assignRecruiter(companyId, principal.getUserId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.Jobtrackr.jta.config;
+
+import com.Jobtrackr.jta.exception.NotFoundException;
+import com.Jobtrackr.jta.exception.UnauthorizedActionException;
+import com.Jobtrackr.jta.user.entity.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The signed-in user as placed in the security context: id, email, role and company,
+ * enough for most services to authorize and act without loading the user.
+ * {@link #getName()} is the email, so {@code Authentication.getName()} is unchanged.
+ */
+public final class AuthPrincipal implements AuthenticatedPrincipal {
+
+    private static final Map<Role, List<SimpleGrantedAuthority>> AUTHORITIES = new EnumMap<>(Role.class);
+
+    static {
+        for (Role role : Role.values()) {
+            AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        }
+    }
+
+    private final UUID userId;
+    private final String email;
+    private final Role role;
+    private final UUID companyId;
+
+    public AuthPrincipal(UUID userId, String email, Role role, UUID companyId) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.companyId = companyId;
+    }
+
+    /**
+     * The principal of the current request.
+     */
+    public static AuthPrincipal current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthPrincipal principal) {
+            return principal;
+        }
+        throw new NotFoundException("User not found");
+    }
+
+    /**
+     * The principal of the current request, provided it has the role.
+     */
+    public static AuthPrincipal require(Role role, String message) {
+        AuthPrincipal principal = current();
+        if (principal.role != role) {
+            throw new UnauthorizedActionException(message);
+        }
+        return principal;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public List<SimpleGrantedAuthority> getAuthorities() {
+        return AUTHORITIES.get(role);
+    }
+}
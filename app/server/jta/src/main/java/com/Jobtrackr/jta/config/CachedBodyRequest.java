@@ -0,0 +1,131 @@
+package com.Jobtrackr.jta.config;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads up to {@code maxBytes} of the body up front so a filter can inspect it, and
+ * replays those bytes, followed by whatever was left unread, to the rest of the chain.
+ *
+ * Non-blocking reads work too. A body that fit in the limit is already in memory, so a
+ * read listener is called back right away; otherwise the listener is registered on
+ * the original stream and sees the replayed bytes before the rest.
+ */
+class CachedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] cached;
+    private final ByteArrayInputStream replay;
+    private final ServletInputStream original;
+
+    CachedBodyRequest(HttpServletRequest request, int maxBytes) throws IOException {
+        super(request);
+        this.original = request.getInputStream();
+        byte[] read = original.readNBytes(maxBytes + 1);
+        this.cached = read.length <= maxBytes ? read : null;
+        this.replay = new ByteArrayInputStream(read);
+    }
+
+    /**
+     * The whole body, or null if it is longer than the limit.
+     */
+    byte[] cachedBody() {
+        return cached;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new ServletInputStream() {
+            private boolean finished;
+            private boolean nonBlocking;
+
+            @Override
+            public int read() throws IOException {
+                int b;
+                if (replay.available() > 0) {
+                    b = replay.read();
+                } else {
+                    // A body that fit was read to its end up front.
+                    b = cached != null ? -1 : original.read();
+                }
+                finished = b < 0;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n;
+                if (replay.available() > 0) {
+                    n = replay.read(buffer, offset, length);
+                } else {
+                    n = cached != null ? -1 : original.read(buffer, offset, length);
+                }
+                finished = n < 0;
+                return n;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return finished || replay.available() == 0 && (cached != null || original.isFinished());
+            }
+
+            @Override
+            public boolean isReady() {
+                // Outside non-blocking mode the container's stream refuses to answer.
+                return replay.available() > 0 || !nonBlocking || original.isReady();
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                if (cached == null) {
+                    nonBlocking = true;
+                    original.setReadListener(new ReadListener() {
+                        @Override
+                        public void onDataAvailable() throws IOException {
+                            listener.onDataAvailable();
+                        }
+
+                        @Override
+                        public void onAllDataRead() throws IOException {
+                            if (replay.available() > 0) {
+                                listener.onDataAvailable();
+                            }
+                            listener.onAllDataRead();
+                        }
+
+                        @Override
+                        public void onError(Throwable error) {
+                            listener.onError(error);
+                        }
+                    });
+                    return;
+                }
+                try {
+                    if (replay.available() > 0) {
+                        listener.onDataAvailable();
+                    }
+                    if (replay.available() == 0) {
+                        listener.onAllDataRead();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    listener.onError(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        String encoding = getCharacterEncoding();
+        return new BufferedReader(new InputStreamReader(getInputStream(),
+                encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+    }
+}
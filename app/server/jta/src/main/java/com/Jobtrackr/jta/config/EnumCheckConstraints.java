@@ -0,0 +1,108 @@
+package com.Jobtrackr.jta.config;
+
+import com.Jobtrackr.jta.Job.entity.JobStatus;
+import com.Jobtrackr.jta.application.entity.ApplicationStatus;
+import com.Jobtrackr.jta.mail.entity.OutboxStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Hibernate generates a check constraint for every {@code EnumType.STRING} column, but
+ * {@code ddl-auto=update} never rewrites it, so databases created before an enum grew
+ * reject the new values. Rebuilds those constraints from the current enum constants.
+ *
+ * A constraint that already allows exactly the current constants is left alone, so a
+ * normal start takes no locks. Otherwise it is replaced in one transaction as
+ * {@code NOT VALID}, which needs only a brief exclusive lock and no scan, and then
+ * validated separately under a lock that lets reads and writes continue.
+ */
+@Component
+public class EnumCheckConstraints {
+
+    private static final Pattern LITERAL = Pattern.compile("'((?:[^']|'')*)'");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    // Taking the EntityManagerFactory makes this run after the schema update.
+    public EnumCheckConstraints(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void refresh() {
+        refresh("jobs", "status", JobStatus.class);
+        refresh("applications", "status", ApplicationStatus.class);
+        refresh("job_application_counts", "status", ApplicationStatus.class);
+        refresh("mail_outbox", "status", OutboxStatus.class);
+    }
+
+    private void refresh(String table, String column, Class<? extends Enum<?>> type) {
+        String constraint = table + "_" + column + "_check";
+        Set<String> expected = Arrays.stream(type.getEnumConstants())
+                .map(Enum::name)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        List<Current> current = jdbcTemplate.query(
+                "select pg_get_constraintdef(oid) as definition, convalidated from pg_constraint " +
+                        "where conname = ? and conrelid = to_regclass(?)",
+                (rs, row) -> new Current(rs.getString("definition"), rs.getBoolean("convalidated")),
+                constraint, table);
+        if (!current.isEmpty() && literals(current.get(0).definition).equals(expected)) {
+            if (!current.get(0).validated) {
+                // Left unvalidated by an earlier start that stopped halfway.
+                validate(table, constraint);
+            }
+            return;
+        }
+
+        String values = expected.stream()
+                .map(value -> "'" + value + "'")
+                .collect(Collectors.joining(", "));
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.execute("alter table " + table + " drop constraint if exists " + constraint);
+            jdbcTemplate.execute("alter table " + table + " add constraint " + constraint +
+                    " check (" + column + " in (" + values + ")) not valid");
+        });
+        validate(table, constraint);
+        System.out.println("Rebuilt check constraint " + constraint);
+    }
+
+    private void validate(String table, String constraint) {
+        jdbcTemplate.execute("alter table " + table + " validate constraint " + constraint);
+    }
+
+    private static Set<String> literals(String definition) {
+        Set<String> values = new TreeSet<>();
+        Matcher matcher = LITERAL.matcher(definition);
+        while (matcher.find()) {
+            values.add(matcher.group(1).replace("''", "'"));
+        }
+        return values;
+    }
+
+    private static final class Current {
+        private final String definition;
+        private final boolean validated;
+
+        private Current(String definition, boolean validated) {
+            this.definition = definition;
+            this.validated = validated;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.Jobtrackr.jta.config;
+
+import com.Jobtrackr.jta.exception.ErrorResponse;
+import com.Jobtrackr.jta.idempotency.service.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Makes job, application and company writes safe to retry. A request carrying an
+ * {@code Idempotency-Key} header runs once per user and key; a retry with the same key
+ * gets the stored response replayed, marked with {@code Idempotent-Replayed: true},
+ * without reaching the controller.
+ *
+ * A retry while the first request is still running gets 409, and reusing a key for a
+ * different request body gets 422. Server errors are not stored, so the request can
+ * be retried with the same key. Runs after authorization, so only requests the user
+ * may make are recorded.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_BODY_BYTES = 1024 * 1024;
+    private static final int MAX_STORED_RESPONSE_BYTES = 64 * 1024;
+
+    private static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final List<String> PATTERNS = List.of("/api/jobs/**", "/api/applications/**", "/api/companies/**");
+    // View counting needs no protection, and imports stream bodies too large to keep.
+    private static final List<String> EXCLUDED = List.of("/api/jobs/*/views", "/api/jobs/import");
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(HEADER) == null || !METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return PATTERNS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path))
+                || EXCLUDED.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String idempotencyKey = request.getHeader(HEADER).strip();
+        if (auth == null || idempotencyKey.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST, HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyRequest cached = new CachedBodyRequest(request, MAX_BODY_BYTES);
+        if (cached.cachedBody() == null) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body too large to use with " + HEADER);
+            return;
+        }
+
+        String key = auth.getName() + " " + request.getMethod() + " " + request.getRequestURI() + " " + idempotencyKey;
+        byte[] fingerprint = fingerprint(request.getQueryString(), cached.cachedBody());
+        IdempotencyStore.Entry existing = store.claim(key, fingerprint);
+        if (existing != null) {
+            replay(existing, fingerprint, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper recorded = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(cached, recorded);
+        } catch (IOException | ServletException | RuntimeException e) {
+            store.release(key);
+            throw e;
+        }
+        int status = recorded.getStatus();
+        if (status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value()
+                && recorded.getContentSize() <= MAX_STORED_RESPONSE_BYTES && !request.isAsyncStarted()) {
+            store.complete(key, fingerprint, status, recorded.getContentType(), recorded.getContentAsByteArray());
+        } else {
+            store.release(key);
+        }
+        recorded.copyBodyToResponse();
+    }
+
+    private void replay(IdempotencyStore.Entry entry, byte[] fingerprint, HttpServletResponse response)
+            throws IOException {
+        if (!MessageDigest.isEqual(entry.getFingerprint(), fingerprint)) {
+            reject(response, HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used for a different request");
+            return;
+        }
+        if (!entry.isCompleted()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            reject(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still being processed");
+            return;
+        }
+        response.setStatus(entry.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (entry.getContentType() != null) {
+            response.setContentType(entry.getContentType());
+        }
+        byte[] body = entry.getBody();
+        if (body != null && body.length > 0) {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status.value(), message));
+    }
+
+    private static byte[] fingerprint(String query, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (query != null) {
+                digest.update(query.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            digest.update(body);
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,28 +1,29 @@
 package com.Jobtrackr.jta.config;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.config.Customizer;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final PrincipalCache principalCache;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, PrincipalCache principalCache) {
         this.jwtUtil = jwtUtil;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -31,50 +32,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        System.out.println("FILTER RUNNING FOR: " + request.getRequestURI());
-
         String header = request.getHeader("Authorization");
 
-
-        if (header != null && header.startsWith("Bearer ")) {
-
-            String token = header.substring(7);
+        // Only set authentication if not already set
+        if (header != null && header.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
 
             try {
+                AuthPrincipal principal = principalCache.resolve(jwtUtil.verify(header.substring(7)));
 
-                String email = jwtUtil.validateToken(token);
-                String role = jwtUtil.extractRole(token);
-
-                System.out.println("ROLE FROM TOKEN: " + role);
-
-                // Only set authentication if not already set
-                if (SecurityContextHolder.getContext().getAuthentication() == null) {
-
+                if (principal != null) {
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
-                                    email,
+                                    principal,
                                     null,
-                                    List.of(new SimpleGrantedAuthority("ROLE_" + role))
+                                    principal.getAuthorities()
                             );
 
-                    authentication.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
+                    authentication.setDetails(detailsSource.buildDetails(request));
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
-
-                    System.out.println("Authorities: " +
-                            SecurityContextHolder.getContext()
-                                    .getAuthentication()
-                                    .getAuthorities());
                 }
 
-            } catch (Exception e) {
-                System.out.println("JWT ERROR: " + e.getMessage());
+            } catch (JWTVerificationException e) {
+                // Invalid or expired: the request continues unauthenticated.
             }
         }
 
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -1,41 +1,164 @@
 package com.Jobtrackr.jta.config;
 
 
+import com.Jobtrackr.jta.user.entity.Role;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.InvalidClaimException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Issues and verifies tokens. The algorithm and verifier are built once; both are
+ * thread-safe.
+ *
+ * Verified tokens are cached under the SHA-256 digest of the token, so a client
+ * sending the same token on every request costs one hash and a map lookup instead of
+ * a decode, two JSON parses and an HMAC. Only the digest is kept, never the token.
+ * A cached token is dropped once it expires, and the cache holds at most
+ * {@value #MAX_CACHED_TOKENS} tokens.
+ */
 @Component
 public class JwtUtil {
 
+    private static final int MAX_CACHED_TOKENS = 10_000;
+
     private final String SECRET = "super-secret-key-change-this";
     private final long EXPIRATION = 1000 * 60 * 60; // 1 hour
 
-    public String generateToken(String email, String role) {
+    private final Algorithm algorithm = Algorithm.HMAC256(SECRET);
+    private final JWTVerifier verifier = JWT.require(algorithm).build();
+    private final ConcurrentHashMap<TokenDigest, VerifiedToken> verified = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
 
-        return JWT.create()
+    public String generateToken(UUID userId, String email, Role role, UUID companyId) {
+
+        JWTCreator.Builder builder = JWT.create()
                 .withSubject(email)
-                .withClaim("role", role)
+                .withClaim("role", role.name())
+                .withClaim("userId", userId.toString());
+        if (companyId != null) {
+            builder.withClaim("companyId", companyId.toString());
+        }
+        return builder
                 .withIssuedAt(new Date())
                 .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION))
-                .sign(Algorithm.HMAC256(SECRET));
+                .sign(algorithm);
+    }
+
+    /**
+     * Verifies the token once and returns its claims, from the cache when the same
+     * token was verified before.
+     *
+     * @throws JWTVerificationException if the token is invalid or expired
+     */
+    public VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        TokenDigest digest = TokenDigest.of(token);
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            verified.remove(digest, cached);
+            throw new TokenExpiredException("The Token has expired", Instant.ofEpochMilli(cached.getExpiresAtMillis()));
+        }
+
+        DecodedJWT jwt = verifier.verify(token);
+        Date issuedAt = jwt.getIssuedAt();
+        Date expiresAt = jwt.getExpiresAt();
+        VerifiedToken result;
+        try {
+            result = new VerifiedToken(
+                    jwt.getSubject(),
+                    Role.valueOf(jwt.getClaim("role").asString()),
+                    uuidClaim(jwt, "userId"),
+                    uuidClaim(jwt, "companyId"),
+                    issuedAt != null ? issuedAt.getTime() : 0,
+                    expiresAt != null ? expiresAt.getTime() : now + EXPIRATION);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidClaimException("Malformed role or id claim");
+        }
+        if (verified.size() >= MAX_CACHED_TOKENS) {
+            evict(now);
+        }
+        verified.put(digest, result);
+        return result;
+    }
+
+    public long getExpirationMillis() {
+        return EXPIRATION;
     }
 
-    public String validateToken(String token) {
+    public int cachedTokens() {
+        return verified.size();
+    }
+
+    private static UUID uuidClaim(DecodedJWT jwt, String name) {
+        String value = jwt.getClaim(name).asString();
+        return value != null ? UUID.fromString(value) : null;
+    }
 
-        return JWT.require(Algorithm.HMAC256(SECRET))
-                .build()
-                .verify(token)
-                .getSubject();
+    private void evict(long now) {
+        verified.values().removeIf(token -> token.isExpired(now));
+        if (verified.size() >= MAX_CACHED_TOKENS) {
+            // Still full of live tokens: start over rather than track recency on every hit.
+            verified.clear();
+        }
     }
-    public String extractRole(String token) {
 
-        return JWT.require(Algorithm.HMAC256(SECRET))
-                .build()
-                .verify(token)
-                .getClaim("role")
-                .asString();
+    /**
+     * The first 128 bits of the token's SHA-256 digest.
+     */
+    private static final class TokenDigest {
+        private final long high;
+        private final long low;
+
+        private TokenDigest(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        private static TokenDigest of(String token) {
+            byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+            return new TokenDigest(toLong(hash, 0), toLong(hash, 8));
+        }
+
+        private static long toLong(byte[] bytes, int offset) {
+            long value = 0;
+            for (int i = offset; i < offset + 8; i++) {
+                value = (value << 8) | (bytes[i] & 0xFF);
+            }
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TokenDigest digest && digest.high == high && digest.low == low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high ^ low);
+        }
     }
-}
\ No newline at end of file
+}
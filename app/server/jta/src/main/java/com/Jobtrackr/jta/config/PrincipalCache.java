@@ -0,0 +1,124 @@
+package com.Jobtrackr.jta.config;
+
+import com.Jobtrackr.jta.user.entity.Role;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns a verified token into the request's {@link AuthPrincipal}.
+ *
+ * Normally the token's own claims are used and nothing is read. The user is loaded
+ * instead when the token predates the id claims, or when the user's role or company
+ * changed after the token was issued ({@link #invalidate}). Loaded principals are
+ * kept for {@value #TTL_MILLIS} ms.
+ *
+ * Changes are only seen by this instance; other instances pick them up when the
+ * user next logs in.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final long TTL_MILLIS = 60_000;
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long tokenLifetimeMillis;
+
+    private final ConcurrentHashMap<String, Loaded> loaded = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> changedAt = new ConcurrentHashMap<>();
+
+    public PrincipalCache(JdbcTemplate jdbcTemplate, JwtUtil jwtUtil) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenLifetimeMillis = jwtUtil.getExpirationMillis();
+    }
+
+    /**
+     * The principal for the token, or null if its user no longer exists.
+     */
+    public AuthPrincipal resolve(VerifiedToken token) {
+        AuthPrincipal claimed = token.getPrincipal();
+        if (claimed != null) {
+            Long changed = changedAt.isEmpty() ? null : changedAt.get(token.getSubject());
+            // Issue times have second precision, so a token from the same second counts as stale.
+            if (changed == null || token.getIssuedAtMillis() > changed) {
+                return claimed;
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        Loaded cached = loaded.get(token.getSubject());
+        if (cached != null && cached.expiresAt > now) {
+            return cached.principal;
+        }
+        AuthPrincipal principal = load(token.getSubject());
+        if (principal != null) {
+            if (loaded.size() >= MAX_ENTRIES) {
+                evictExpired();
+            }
+            loaded.put(token.getSubject(), new Loaded(principal, now + TTL_MILLIS));
+        }
+        return principal;
+    }
+
+    /**
+     * Stops trusting the claims of the user's existing tokens, once the current
+     * transaction commits.
+     */
+    public void invalidate(String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changed(email);
+                }
+            });
+        } else {
+            changed(email);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        loaded.values().removeIf(entry -> entry.expiresAt <= now);
+        // Tokens issued before a change have all expired after one token lifetime.
+        changedAt.values().removeIf(at -> at + tokenLifetimeMillis <= now);
+        if (loaded.size() >= MAX_ENTRIES) {
+            loaded.clear();
+        }
+    }
+
+    private void changed(String email) {
+        changedAt.put(email, System.currentTimeMillis());
+        loaded.remove(email);
+    }
+
+    private AuthPrincipal load(String email) {
+        List<AuthPrincipal> rows = jdbcTemplate.query(
+                "select id, role, company_id from users where email = ?",
+                (rs, row) -> new AuthPrincipal(
+                        rs.getObject("id", UUID.class),
+                        email,
+                        Role.valueOf(rs.getString("role")),
+                        rs.getObject("company_id", UUID.class)),
+                email);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static final class Loaded {
+        private final AuthPrincipal principal;
+        private final long expiresAt;
+
+        private Loaded(AuthPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
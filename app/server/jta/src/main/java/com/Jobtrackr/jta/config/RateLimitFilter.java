@@ -0,0 +1,174 @@
+package com.Jobtrackr.jta.config;
+
+import com.Jobtrackr.jta.exception.ErrorResponse;
+import com.Jobtrackr.jta.util.RateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the endpoints that hash passwords, send mail or apply to jobs, per client
+ * address and per account, before any of their work is done. A rejected request gets
+ * 429 with a {@code Retry-After} header.
+ *
+ * The account is the signed-in user, or for the anonymous endpoints the {@code email}
+ * field of the JSON body, which is read here and replayed to the controller.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<Policy> policies;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(ObjectMapper objectMapper,
+                           @Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.max-keys:20000}") int maxKeys) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.policies = List.of(
+                new Policy("/api/users/login", Account.BODY_EMAIL,
+                        new RateLimiter(30, Duration.ofMinutes(1), 10, maxKeys),
+                        new RateLimiter(10, Duration.ofMinutes(15), 5, maxKeys)),
+                new Policy("/api/users/register", Account.BODY_EMAIL,
+                        new RateLimiter(10, Duration.ofHours(1), 5, maxKeys),
+                        new RateLimiter(3, Duration.ofHours(1), 2, maxKeys)),
+                new Policy("/api/users/forgot-password", Account.BODY_EMAIL,
+                        new RateLimiter(10, Duration.ofHours(1), 5, maxKeys),
+                        new RateLimiter(3, Duration.ofHours(1), 2, maxKeys)),
+                new Policy("/api/users/request-email-verification", Account.BODY_EMAIL,
+                        new RateLimiter(10, Duration.ofHours(1), 5, maxKeys),
+                        new RateLimiter(3, Duration.ofHours(1), 2, maxKeys)),
+                new Policy("/api/users/reset-password", Account.NONE,
+                        new RateLimiter(20, Duration.ofHours(1), 5, maxKeys),
+                        null),
+                new Policy("/api/applications/jobs/*/apply", Account.PRINCIPAL,
+                        new RateLimiter(120, Duration.ofMinutes(1), 30, maxKeys),
+                        new RateLimiter(30, Duration.ofMinutes(1), 10, maxKeys))
+        );
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Policy policy = policyFor(request.getServletPath());
+        if (policy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long wait = policy.perClient.tryAcquire(request.getRemoteAddr());
+        if (wait == 0 && policy.perAccount != null) {
+            String account = null;
+            if (policy.account == Account.PRINCIPAL) {
+                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+                account = auth != null ? auth.getName() : null;
+            } else if (policy.account == Account.BODY_EMAIL) {
+                CachedBodyRequest cached = new CachedBodyRequest(request, MAX_BODY_BYTES);
+                request = cached;
+                account = emailOf(cached.cachedBody());
+            }
+            if (account != null) {
+                wait = policy.perAccount.tryAcquire(account);
+            }
+        }
+
+        if (wait > 0) {
+            reject(response, wait);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedRate = 60_000)
+    public void evictIdleBuckets() {
+        for (Policy policy : policies) {
+            policy.perClient.evictIdle();
+            if (policy.perAccount != null) {
+                policy.perAccount.evictIdle();
+            }
+        }
+    }
+
+    private Policy policyFor(String path) {
+        for (Policy policy : policies) {
+            if (pathMatcher.match(policy.pattern, path)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    private String emailOf(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).path("email");
+            return email.isTextual() ? email.asText().strip().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // Malformed bodies are rejected by the controller; only the per-client limit applies.
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too many requests, try again in " + seconds + " seconds"));
+    }
+
+    private enum Account {
+        NONE,
+        PRINCIPAL,
+        BODY_EMAIL
+    }
+
+    private static final class Policy {
+        private final String pattern;
+        private final Account account;
+        private final RateLimiter perClient;
+        private final RateLimiter perAccount;
+
+        private Policy(String pattern, Account account, RateLimiter perClient, RateLimiter perAccount) {
+            this.pattern = pattern;
+            this.account = account;
+            this.perClient = perClient;
+            this.perAccount = perAccount;
+        }
+    }
+}
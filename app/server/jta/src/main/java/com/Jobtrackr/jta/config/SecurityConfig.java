@@ -1,13 +1,15 @@
 package com.Jobtrackr.jta.config;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.web.cors.CorsConfiguration;
@@ -19,14 +21,31 @@ import java.util.List;
 @Configuration
 public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final IdempotencyFilter idempotencyFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
+                          RateLimitFilter rateLimitFilter,
+                          IdempotencyFilter idempotencyFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.idempotencyFilter = idempotencyFilter;
     }
 
+    // Runs inside the security chain, after the JWT filter; not again as a plain servlet filter.
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    // Runs inside the security chain, after authorization; not again as a plain servlet filter.
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilterRegistration(IdempotencyFilter filter) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
     }
 
 
@@ -44,11 +63,17 @@ public class SecurityConfig {
                 )
 
                 .authorizeHttpRequests(auth -> auth
+                        // Completion of an already authorized event stream or streamed export
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC)
+                        .permitAll()
                         .requestMatchers("/api/users/register", "/api/users/login",
                                 "/api/users/forgot-password", "/api/users/reset-password",
                                 "/api/users/request-email-verification", "/api/users/verify-email")
                         .permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/jobs")
+                        .requestMatchers(HttpMethod.GET, "/api/jobs", "/api/jobs/feed", "/api/jobs/search",
+                                "/api/jobs/autocomplete", "/api/jobs/*/similar", "/api/locations/suggest")
+                        .permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/jobs/*/views")
                         .permitAll()
                         .requestMatchers(
                                 "/swagger-ui.html",
@@ -57,15 +82,20 @@ public class SecurityConfig {
                         ).permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/users/me")
                         .authenticated()
-                        .requestMatchers(HttpMethod.GET, "/api/users")
+                        .requestMatchers(HttpMethod.GET, "/api/users", "/api/users/export")
                         .hasAuthority("ROLE_ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/jobs/recruiter")
                         .hasAuthority("ROLE_RECRUITER")
-                        .requestMatchers(HttpMethod.GET, "/api/jobs/all")
+                        .requestMatchers(HttpMethod.GET, "/api/jobs/matches")
+                        .hasAuthority("ROLE_CANDIDATE")
+                        .requestMatchers(HttpMethod.GET, "/api/jobs/all", "/api/jobs/autocomplete/stats",
+                                "/api/jobs/export")
+                        .hasAuthority("ROLE_ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/skills")
                         .hasAuthority("ROLE_ADMIN")
-                        .requestMatchers(HttpMethod.POST, "/api/jobs")
+                        .requestMatchers(HttpMethod.POST, "/api/jobs", "/api/jobs/import")
                         .hasAuthority("ROLE_RECRUITER")
-                        .requestMatchers(HttpMethod.GET, "/api/applications/jobs/**")
+                        .requestMatchers(HttpMethod.GET, "/api/applications/jobs/**", "/api/applications/export")
                         .hasAuthority("ROLE_RECRUITER")
                         .requestMatchers(HttpMethod.PATCH, "/api/applications/**")
                         .hasAuthority("ROLE_RECRUITER")
@@ -87,7 +117,9 @@ public class SecurityConfig {
                         .authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter,
-                        UsernamePasswordAuthenticationFilter.class);
+                        UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(idempotencyFilter, AuthorizationFilter.class);
 
 
         return http.build();
@@ -0,0 +1,54 @@
+package com.Jobtrackr.jta.config;
+
+import com.Jobtrackr.jta.user.entity.Role;
+
+import java.util.UUID;
+
+/**
+ * The claims of a token whose signature and expiry have been checked.
+ */
+public final class VerifiedToken {
+
+    private final String subject;
+    private final Role role;
+    private final long issuedAtMillis;
+    private final long expiresAtMillis;
+    private final AuthPrincipal principal;
+
+    public VerifiedToken(String subject, Role role, UUID userId, UUID companyId,
+                         long issuedAtMillis, long expiresAtMillis) {
+        this.subject = subject;
+        this.role = role;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expiresAtMillis = expiresAtMillis;
+        // Tokens issued before the id claims existed carry no principal.
+        this.principal = userId != null ? new AuthPrincipal(userId, subject, role, companyId) : null;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    /**
+     * The principal as described by the claims, or null if the token has no user id.
+     */
+    public AuthPrincipal getPrincipal() {
+        return principal;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -1,5 +1,6 @@
 package com.Jobtrackr.jta.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import com.Jobtrackr.jta.exception.ErrorResponse;
@@ -53,5 +54,16 @@ public class GlobalExceptionHandler {
                         ex.getMessage()
                 ));
     }
-}
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(ServiceUnavailableException ex) {
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        ex.getMessage()
+                ));
+    }
+}
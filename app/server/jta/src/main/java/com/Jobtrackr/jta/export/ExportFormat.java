@@ -0,0 +1,45 @@
+package com.Jobtrackr.jta.export;
+
+import com.Jobtrackr.jta.exception.BadRequestException;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String attachment(String name) {
+        return "attachment; filename=\"" + name + "-export." + extension + "\"";
+    }
+
+    /**
+     * Parses the {@code format} request parameter; NDJSON when absent.
+     */
+    public static ExportFormat from(String format) {
+        if (format == null || format.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(format.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Export format must be ndjson or csv");
+        }
+    }
+}
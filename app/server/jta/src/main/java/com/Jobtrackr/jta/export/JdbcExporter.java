@@ -0,0 +1,199 @@
+package com.Jobtrackr.jta.export;
+
+import com.Jobtrackr.jta.util.CsvWriter;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams the result of a query to the client as NDJSON or CSV.
+ *
+ * The query runs in a read-only transaction with a bounded fetch size, so Postgres
+ * hands rows over through a server-side cursor a batch at a time, and each row is
+ * written to the response as soon as it is read. Nothing is collected in between, so
+ * memory use is the same for a thousand rows or ten million.
+ */
+@Component
+public class JdbcExporter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory;
+
+    public JdbcExporter(DataSource dataSource,
+                        PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper,
+                        @Value("${exports.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Column labels of the query become the NDJSON field names and the CSV header.
+     */
+    public StreamingResponseBody stream(ExportFormat format, String sql, Object... args) {
+        return out -> {
+            long started = System.currentTimeMillis();
+            long[] rows = new long[1];
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out)) {
+                        jdbcTemplate.query(sql, rs -> {
+                            try {
+                                if (rows[0]++ == 0) {
+                                    writer.start(rs.getMetaData());
+                                }
+                                writer.row(rs);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }, args);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                System.err.println("Export aborted after " + rows[0] + " rows: " + e.getCause().getMessage());
+                throw e.getCause();
+            }
+            System.out.println("Exported " + rows[0] + " rows as " + format + " in "
+                    + (System.currentTimeMillis() - started) + " ms");
+        };
+    }
+
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof Date date) {
+            return date.toLocalDate().toString();
+        }
+        return value;
+    }
+
+    private interface RowWriter extends AutoCloseable {
+
+        /**
+         * Called before the first row; never called for an empty result.
+         */
+        void start(ResultSetMetaData meta) throws SQLException, IOException;
+
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private String[] fields;
+
+        private NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void start(ResultSetMetaData meta) throws SQLException {
+            fields = labels(meta).toArray(String[]::new);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < fields.length; i++) {
+                generator.writeFieldName(fields[i]);
+                Object value = value(rs, i + 1);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else if (value instanceof Double || value instanceof Float) {
+                    generator.writeNumber(((Number) value).doubleValue());
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final CsvWriter csv;
+        private int columns;
+
+        private CsvRowWriter(OutputStream out) {
+            this.csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        }
+
+        @Override
+        public void start(ResultSetMetaData meta) throws SQLException, IOException {
+            List<String> header = labels(meta);
+            columns = header.size();
+            csv.writeRecord(header);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            List<String> record = new ArrayList<>(columns);
+            for (int i = 1; i <= columns; i++) {
+                Object value = value(rs, i);
+                record.add(value != null ? value.toString() : null);
+            }
+            csv.writeRecord(record);
+        }
+
+        @Override
+        public void close() throws IOException {
+            csv.flush();
+        }
+    }
+
+    private static List<String> labels(ResultSetMetaData meta) throws SQLException {
+        List<String> labels = new ArrayList<>();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            labels.add(meta.getColumnLabel(i));
+        }
+        return labels;
+    }
+}
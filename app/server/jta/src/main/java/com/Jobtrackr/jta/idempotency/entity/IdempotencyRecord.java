@@ -0,0 +1,34 @@
+package com.Jobtrackr.jta.idempotency.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", columnDefinition = "text")
+    private String key;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] fingerprint;
+
+    @Column(nullable = false)
+    private int status;
+
+    private String contentType;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] body;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,232 @@
+package com.Jobtrackr.jta.idempotency.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outcomes of requests sent with an {@code Idempotency-Key}, kept for
+ * {@code idempotency.ttl}.
+ *
+ * Entries live in memory, bounded by {@code idempotency.max-entries} and by the total
+ * size of the stored bodies. Every entry has the same time to live, so insertion
+ * order is also expiry order: a FIFO queue finds expired entries without scanning,
+ * and when a bound is hit the oldest entries are dropped early.
+ *
+ * With {@code idempotency.persist} completed outcomes are also written to the
+ * {@code idempotency_keys} table, so they survive a restart and are seen by other
+ * instances. Requests still in flight are only tracked locally.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final boolean persist;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final AtomicLong bytes = new AtomicLong();
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+                            @Value("${idempotency.ttl:24h}") Duration ttl,
+                            @Value("${idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${idempotency.max-bytes:33554432}") long maxBytes,
+                            @Value("${idempotency.persist:false}") boolean persist) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.persist = persist;
+    }
+
+    /**
+     * Claims the key for a new request. Returns null if the caller now owns it and must
+     * {@link #complete} or {@link #release} it; otherwise the entry already holding it,
+     * in flight or completed.
+     */
+    public Entry claim(String key, byte[] fingerprint) {
+        long now = System.currentTimeMillis();
+        Entry existing = live(entries.get(key), now);
+        if (existing == null && persist) {
+            Entry stored = load(key);
+            if (stored != null) {
+                existing = install(stored, now);
+                if (existing == null) {
+                    order.add(stored);
+                    bytes.addAndGet(stored.size());
+                    trim(now);
+                    return stored;
+                }
+            }
+        }
+        if (existing != null) {
+            return existing;
+        }
+        // In-flight claims are bounded by the number of request threads and are not queued.
+        return install(new Entry(key, fingerprint, now + ttlMillis), now);
+    }
+
+    /**
+     * Records the response for a claimed key, so a retry gets it replayed.
+     */
+    public void complete(String key, byte[] fingerprint, int status, String contentType, byte[] body) {
+        Entry done = new Entry(key, fingerprint, System.currentTimeMillis() + ttlMillis, status, contentType, body);
+        Entry claimed = entries.get(key);
+        if (claimed == null || claimed.isCompleted() || !entries.replace(key, claimed, done)) {
+            // Evicted while the request ran; the outcome is simply not kept.
+            return;
+        }
+        order.add(done);
+        bytes.addAndGet(done.size());
+        if (persist) {
+            jdbcTemplate.update("insert into idempotency_keys " +
+                            "(idempotency_key, fingerprint, status, content_type, body, expires_at) " +
+                            "values (?, ?, ?, ?, ?, ?) on conflict (idempotency_key) do nothing",
+                    key, fingerprint, status, contentType, body,
+                    Timestamp.valueOf(LocalDateTime.now().plus(Duration.ofMillis(ttlMillis))));
+        }
+        trim(System.currentTimeMillis());
+    }
+
+    /**
+     * Gives up a claim without recording an outcome, so the request may be retried.
+     */
+    public void release(String key) {
+        Entry claimed = entries.get(key);
+        if (claimed != null && !claimed.isCompleted()) {
+            entries.remove(key, claimed);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        trim(System.currentTimeMillis());
+        if (persist) {
+            int deleted = jdbcTemplate.update("delete from idempotency_keys where expires_at < now()");
+            if (deleted > 0) {
+                System.out.println("Deleted " + deleted + " expired idempotency keys");
+            }
+        }
+    }
+
+    /**
+     * Puts the entry in place of a missing or expired one. Returns null if it was put,
+     * otherwise the live entry already there.
+     */
+    private Entry install(Entry entry, long now) {
+        Entry[] existing = new Entry[1];
+        entries.compute(entry.key, (key, current) -> {
+            if (live(current, now) != null) {
+                existing[0] = current;
+                return current;
+            }
+            return entry;
+        });
+        return existing[0];
+    }
+
+    /**
+     * Drops expired entries from the head of the queue, then the oldest live ones
+     * while a bound is exceeded. Entries already replaced in the map are only dequeued.
+     */
+    private void trim(long now) {
+        while (true) {
+            Entry head = order.peek();
+            if (head == null) {
+                return;
+            }
+            boolean expired = head.expiresAt <= now;
+            if (!expired && entries.size() <= maxEntries && bytes.get() <= maxBytes) {
+                return;
+            }
+            if (order.remove(head)) {
+                entries.remove(head.key, head);
+                bytes.addAndGet(-head.size());
+            }
+        }
+    }
+
+    private Entry load(String key) {
+        List<Entry> rows = jdbcTemplate.query(
+                "select fingerprint, status, content_type, body, expires_at from idempotency_keys " +
+                        "where idempotency_key = ? and expires_at > now()",
+                (rs, row) -> new Entry(key, rs.getBytes("fingerprint"),
+                        rs.getTimestamp("expires_at").getTime(),
+                        rs.getInt("status"), rs.getString("content_type"), rs.getBytes("body")),
+                key);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static Entry live(Entry entry, long now) {
+        return entry != null && entry.expiresAt > now ? entry : null;
+    }
+
+    public static final class Entry {
+        private final String key;
+        private final byte[] fingerprint;
+        private final long expiresAt;
+        private final boolean completed;
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+
+        private Entry(String key, byte[] fingerprint, long expiresAt) {
+            this(key, fingerprint, expiresAt, false, 0, null, null);
+        }
+
+        private Entry(String key, byte[] fingerprint, long expiresAt, int status, String contentType, byte[] body) {
+            this(key, fingerprint, expiresAt, true, status, contentType, body);
+        }
+
+        private Entry(String key, byte[] fingerprint, long expiresAt, boolean completed,
+                      int status, String contentType, byte[] body) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+            this.completed = completed;
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public byte[] getFingerprint() {
+            return fingerprint;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        private long size() {
+            return body != null ? body.length : 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.Jobtrackr.jta.location.controller;
+
+import com.Jobtrackr.jta.location.dto.LocationSuggestion;
+import com.Jobtrackr.jta.location.service.LocationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/locations")
+public class LocationController {
+
+    private final LocationService locationService;
+
+    public LocationController(LocationService locationService) {
+        this.locationService = locationService;
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<LocationSuggestion>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(locationService.suggest(prefix, size));
+    }
+}
@@ -0,0 +1,12 @@
+package com.Jobtrackr.jta.location.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LocationSuggestion {
+    private Integer id;
+    private String name;
+    private int openJobs;
+}
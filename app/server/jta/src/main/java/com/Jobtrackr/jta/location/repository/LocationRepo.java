@@ -0,0 +1,7 @@
+package com.Jobtrackr.jta.location.repository;
+
+import com.Jobtrackr.jta.location.entity.Location;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LocationRepo extends JpaRepository<Location, Integer> {
+}
@@ -0,0 +1,256 @@
+package com.Jobtrackr.jta.location.service;
+
+import com.Jobtrackr.jta.exception.BadRequestException;
+import com.Jobtrackr.jta.location.entity.Location;
+import com.Jobtrackr.jta.location.repository.LocationRepo;
+import com.Jobtrackr.jta.util.CompactTrie;
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Interns free-text locations to small integer ids. Spelling variants that normalize
+ * to the same key, and known aliases such as "NYC", share one id, so anything that
+ * filters or groups by location can compare ints instead of strings.
+ *
+ * The whole dictionary is held in memory, along with a {@link CompactTrie} over every
+ * word of every name for prefix suggestions. New locations are written through to the
+ * {@code locations} table as they are first seen, up to {@value #MAX_LOCATIONS}; past
+ * that only known locations are accepted.
+ */
+@Component
+public class LocationDictionary {
+
+    private static final Map<String, String> ALIASES = Map.ofEntries(
+            Map.entry("nyc", "New York"),
+            Map.entry("new york city", "New York"),
+            Map.entry("new york, ny", "New York"),
+            Map.entry("sf", "San Francisco"),
+            Map.entry("san fran", "San Francisco"),
+            Map.entry("la", "Los Angeles"),
+            Map.entry("bangalore", "Bengaluru"),
+            Map.entry("bombay", "Mumbai"),
+            Map.entry("dc", "Washington"),
+            Map.entry("washington dc", "Washington"),
+            Map.entry("washington, d.c", "Washington"),
+            Map.entry("munchen", "Munich"),
+            Map.entry("münchen", "Munich"),
+            Map.entry("wfh", "Remote"),
+            Map.entry("anywhere", "Remote")
+    );
+
+    private static final int MAX_LOCATIONS = 50_000;
+
+    private static final String[] BACKFILL_TABLES = {"jobs", "users", "company"};
+
+    private final LocationRepo locationRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final CompactTrie<Void> trie = new CompactTrie<>();
+    private String[] names = new String[64];
+
+    public LocationDictionary(LocationRepo locationRepository, JdbcTemplate jdbcTemplate) {
+        this.locationRepository = locationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            for (Location location : locationRepository.findAll()) {
+                addLocked(location.getId(), location.getName(), location.getNormalizedName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (String table : BACKFILL_TABLES) {
+            backfill(table);
+        }
+    }
+
+    /**
+     * Returns the id of the location, creating it on first sight. Null for blank input.
+     */
+    public Integer intern(String raw) {
+        String key = normalize(raw);
+        if (key == null) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            Integer id = ids.get(key);
+            if (id != null) {
+                return id;
+            }
+            if (ids.size() >= MAX_LOCATIONS) {
+                throw new BadRequestException("Unknown location: " + collapse(raw));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // The row is written outside the lock so suggestions and lookups never wait on
+        // the database; a concurrent intern of the same key resolves to the same row.
+        String name = ALIASES.getOrDefault(collapse(raw).toLowerCase(Locale.ROOT), collapse(raw));
+        jdbcTemplate.update("insert into locations (name, normalized_name) select ?, ? " +
+                "where not exists (select 1 from locations where normalized_name = ?) " +
+                "on conflict (normalized_name) do nothing", name, key, key);
+        Location stored = jdbcTemplate.queryForObject(
+                "select id, name from locations where normalized_name = ?",
+                (rs, row) -> {
+                    Location location = new Location();
+                    location.setId(rs.getInt("id"));
+                    location.setName(rs.getString("name"));
+                    return location;
+                },
+                key);
+
+        lock.writeLock().lock();
+        try {
+            Integer id = ids.get(key);
+            if (id != null) {
+                return id;
+            }
+            addLocked(stored.getId(), stored.getName(), key);
+            return stored.getId();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Like {@link #intern} but never creates anything; unknown locations return null.
+     */
+    public Integer lookup(String raw) {
+        String key = normalize(raw);
+        if (key == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return ids.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String name(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return id < names.length ? names[id] : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits the id of every location with a word starting with {@code prefix};
+     * an id may be visited more than once.
+     */
+    public void forEachWithPrefix(String prefix, IntConsumer consumer) {
+        String key = collapse(prefix).toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            trie.forEachWithPrefix(key, consumer);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The canonical key: case, surrounding punctuation and repeated whitespace are
+     * ignored, and aliases resolve to the place they stand for.
+     */
+    public static String normalize(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String key = collapse(raw).toLowerCase(Locale.ROOT);
+        String alias = ALIASES.get(key);
+        if (alias != null) {
+            key = alias.toLowerCase(Locale.ROOT);
+        }
+        return key.isEmpty() ? null : key;
+    }
+
+    private void addLocked(int id, String name, String key) {
+        if (id >= names.length) {
+            names = Arrays.copyOf(names, Math.max(id + 1, names.length * 2));
+        }
+        names[id] = name;
+        ids.put(key, id);
+        indexWords(key, id);
+        ALIASES.forEach((alias, target) -> {
+            if (target.toLowerCase(Locale.ROOT).equals(key)) {
+                trie.put(alias, id);
+            }
+        });
+    }
+
+    private void indexWords(String key, int id) {
+        trie.put(key, id);
+        for (int i = 1; i < key.length(); i++) {
+            if (!Character.isLetterOrDigit(key.charAt(i - 1)) && Character.isLetterOrDigit(key.charAt(i))) {
+                trie.put(key.substring(i), id);
+            }
+        }
+    }
+
+    /**
+     * Points rows written before the dictionary existed at their location id.
+     */
+    private void backfill(String table) {
+        List<String> pending = jdbcTemplate.queryForList(
+                "select distinct location from " + table +
+                        " where location_id is null and location is not null and trim(location) <> ''",
+                String.class);
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object[]> updates = new ArrayList<>();
+        for (String raw : pending) {
+            try {
+                updates.add(new Object[]{intern(raw), raw});
+            } catch (BadRequestException e) {
+                // The dictionary is full; the row keeps its text and no id.
+            }
+        }
+        jdbcTemplate.batchUpdate("update " + table + " set location_id = ? where location = ? and location_id is null",
+                updates);
+        System.out.println("Backfilled location ids for " + pending.size() + " distinct locations in " + table);
+    }
+
+    private static String collapse(String raw) {
+        String trimmed = raw.strip().replaceAll("\\s+", " ");
+        int end = trimmed.length();
+        while (end > 0 && ".,;".indexOf(trimmed.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return trimmed.substring(0, end);
+    }
+}
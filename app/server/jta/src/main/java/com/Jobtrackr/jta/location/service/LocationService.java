@@ -0,0 +1,57 @@
+package com.Jobtrackr.jta.location.service;
+
+import com.Jobtrackr.jta.Job.search.JobFacetIndex;
+import com.Jobtrackr.jta.exception.BadRequestException;
+import com.Jobtrackr.jta.location.dto.LocationSuggestion;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+@Service
+public class LocationService {
+
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private final LocationDictionary locationDictionary;
+    private final JobFacetIndex jobFacetIndex;
+
+    public LocationService(LocationDictionary locationDictionary, JobFacetIndex jobFacetIndex) {
+        this.locationDictionary = locationDictionary;
+        this.jobFacetIndex = jobFacetIndex;
+    }
+
+    /**
+     * Locations with a word starting with {@code prefix}, busiest first.
+     */
+    public List<LocationSuggestion> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new BadRequestException("Prefix must not be empty");
+        }
+        int size = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+
+        Comparator<LocationSuggestion> order = Comparator
+                .comparingInt(LocationSuggestion::getOpenJobs)
+                .thenComparing(LocationSuggestion::getName, Comparator.reverseOrder());
+        PriorityQueue<LocationSuggestion> best = new PriorityQueue<>(size + 1, order);
+        Set<Integer> seen = new HashSet<>();
+
+        locationDictionary.forEachWithPrefix(prefix, id -> {
+            if (!seen.add(id)) {
+                return;
+            }
+            best.add(new LocationSuggestion(id, locationDictionary.name(id), jobFacetIndex.openJobCount(id)));
+            if (best.size() > size) {
+                best.poll();
+            }
+        });
+
+        List<LocationSuggestion> suggestions = new ArrayList<>(best);
+        suggestions.sort(order.reversed());
+        return suggestions;
+    }
+}
@@ -0,0 +1,64 @@
+package com.Jobtrackr.jta.mail.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A mail waiting to be sent. Rows are deleted once sent; a row that keeps failing is
+ * left as {@link OutboxStatus#FAILED} with its last error.
+ */
+@Entity
+@Table(name = "mail_outbox", indexes = @Index(name = "idx_mail_outbox_due", columnList = "status, next_attempt_at"))
+public class OutboxMail {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public OutboxMail() {}
+
+    public OutboxMail(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.status = OutboxStatus.PENDING;
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public UUID getId() { return id; }
+    public String getRecipient() { return recipient; }
+    public String getSubject() { return subject; }
+    public String getBody() { return body; }
+    public OutboxStatus getStatus() { return status; }
+    public int getAttempts() { return attempts; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public Instant getCreatedAt() { return createdAt; }
+    public String getLastError() { return lastError; }
+}
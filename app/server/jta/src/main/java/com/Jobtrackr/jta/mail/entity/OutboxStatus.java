@@ -0,0 +1,6 @@
+package com.Jobtrackr.jta.mail.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.Jobtrackr.jta.mail.repository;
+
+import com.Jobtrackr.jta.mail.entity.OutboxMail;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, UUID> {
+}
@@ -0,0 +1,301 @@
+package com.Jobtrackr.jta.mail.service;
+
+import com.Jobtrackr.jta.util.CircuitBreaker;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends the mail in {@code mail_outbox} from one background thread, so no request
+ * waits on SMTP. It runs every {@code mail.outbox.poll-ms} and right after a mail is
+ * queued.
+ *
+ * Due rows are claimed in batches with {@code for update skip locked}, which also
+ * pushes their next attempt past a lease, so several instances never send the same
+ * mail and a crashed dispatcher's claims are picked up again later. All mail goes
+ * over one SMTP connection that is kept open between batches and reopened when the
+ * server has dropped it or it has been idle for {@code mail.outbox.keep-alive}.
+ *
+ * A mail the server refuses is retried with exponential backoff and marked
+ * {@code FAILED} after {@code mail.outbox.max-attempts}. When the server itself is
+ * unreachable, the batch is put back without using up attempts, and after
+ * {@code mail.outbox.circuit-threshold} such failures in a row the dispatcher stops
+ * trying for {@code mail.outbox.circuit-open}.
+ *
+ * {@code mail.outbox.recipient-pattern}, a SQL {@code LIKE} pattern, limits which mail
+ * this dispatcher claims; tests use it to leave real queued mail alone.
+ */
+@Component
+public class MailDispatcher {
+
+    private static final Duration LEASE = Duration.ofMinutes(10);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String CLAIM =
+            "update mail_outbox set next_attempt_at = now() + make_interval(secs => ?) where id in (" +
+            "select id from mail_outbox where status = 'PENDING' and next_attempt_at <= now() and recipient like ? " +
+            "order by next_attempt_at limit ? for update skip locked) " +
+            "returning id, recipient, subject, body, attempts";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JavaMailSenderImpl mailSender;
+    private final boolean enabled;
+    private final long pollMillis;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final long keepAliveNanos;
+    private final CircuitBreaker breaker;
+    private final String recipientPattern;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mail-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean wakeQueued = new AtomicBoolean();
+
+    private Transport transport;
+    private long lastUsed;
+
+    // Taking the EntityManagerFactory makes this start after the schema update.
+    public MailDispatcher(JdbcTemplate jdbcTemplate,
+                          JavaMailSenderImpl mailSender,
+                          EntityManagerFactory entityManagerFactory,
+                          @Value("${mail.outbox.enabled:true}") boolean enabled,
+                          @Value("${mail.outbox.poll-ms:5000}") long pollMillis,
+                          @Value("${mail.outbox.batch-size:50}") int batchSize,
+                          @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                          @Value("${mail.outbox.retry-backoff:30s}") Duration retryBackoff,
+                          @Value("${mail.outbox.keep-alive:30s}") Duration keepAlive,
+                          @Value("${mail.outbox.circuit-threshold:5}") int circuitThreshold,
+                          @Value("${mail.outbox.circuit-open:60s}") Duration circuitOpen,
+                          @Value("${mail.outbox.recipient-pattern:%}") String recipientPattern) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mailSender = mailSender;
+        this.enabled = enabled;
+        this.pollMillis = pollMillis;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.keepAliveNanos = keepAlive.toNanos();
+        this.breaker = new CircuitBreaker(circuitThreshold, circuitOpen);
+        this.recipientPattern = recipientPattern;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            executor.scheduleWithFixedDelay(this::drainQuietly, 0, pollMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Asks for a drain soon, on the dispatcher thread. Wake-ups that arrive while one
+     * is still queued are merged.
+     */
+    public void wake() {
+        if (enabled && wakeQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                wakeQueued.set(false);
+                drainQuietly();
+            });
+        }
+    }
+
+    /**
+     * Sends due mail batch by batch until none is left or the server fails. Returns
+     * how many were sent.
+     */
+    public synchronized int drain() {
+        if (transport != null && System.nanoTime() - lastUsed > keepAliveNanos) {
+            closeTransport();
+        }
+        int sent = 0;
+        while (breaker.allowRequest()) {
+            // While half-open a single mail is the trial.
+            int limit = breaker.state() == CircuitBreaker.State.HALF_OPEN ? 1 : batchSize;
+            List<Claimed> batch = claim(limit);
+            if (batch.isEmpty()) {
+                break;
+            }
+            int batchSent = send(batch);
+            if (batchSent < 0) {
+                break;
+            }
+            sent += batchSent;
+            if (batch.size() < limit) {
+                break;
+            }
+        }
+        return sent;
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return breaker.state();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.execute(this::closeTransport);
+        executor.shutdown();
+    }
+
+    private void drainQuietly() {
+        try {
+            int sent = drain();
+            if (sent > 0) {
+                System.out.println("Sent " + sent + " queued emails");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Mail outbox drain failed: " + e.getMessage());
+        }
+    }
+
+    private List<Claimed> claim(int limit) {
+        return jdbcTemplate.query(CLAIM,
+                (rs, row) -> new Claimed(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("recipient"),
+                        rs.getString("subject"),
+                        rs.getString("body"),
+                        rs.getInt("attempts")),
+                LEASE.toSeconds(), recipientPattern, limit);
+    }
+
+    /**
+     * Sends the batch over the shared connection. Returns how many were sent, or -1 if
+     * the connection failed; the unsent rest of the batch is then put back.
+     */
+    private int send(List<Claimed> batch) {
+        int sent = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Claimed mail = batch.get(i);
+            MimeMessage message;
+            try {
+                message = toMessage(mail);
+            } catch (MessagingException e) {
+                // A malformed address never gets better.
+                refused(mail, e, true);
+                continue;
+            }
+            try {
+                connection().sendMessage(message, message.getAllRecipients());
+                lastUsed = System.nanoTime();
+                jdbcTemplate.update("delete from mail_outbox where id = ?", mail.id);
+                sent++;
+            } catch (SendFailedException e) {
+                // The server is fine but refused this mail.
+                refused(mail, e, false);
+            } catch (MessagingException e) {
+                System.err.println("SMTP connection failed: " + e.getMessage());
+                closeTransport();
+                breaker.recordFailure();
+                putBack(batch.subList(i, batch.size()));
+                return -1;
+            }
+        }
+        breaker.recordSuccess();
+        return sent;
+    }
+
+    private Transport connection() throws MessagingException {
+        if (transport != null && !transport.isConnected()) {
+            closeTransport();
+        }
+        if (transport == null) {
+            String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+            Transport opened = mailSender.getSession().getTransport(protocol);
+            opened.connect(mailSender.getHost(), mailSender.getPort(),
+                    StringUtils.hasLength(mailSender.getUsername()) ? mailSender.getUsername() : null,
+                    StringUtils.hasLength(mailSender.getPassword()) ? mailSender.getPassword() : null);
+            transport = opened;
+            lastUsed = System.nanoTime();
+        }
+        return transport;
+    }
+
+    private void closeTransport() {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            // Already gone.
+        }
+        transport = null;
+    }
+
+    private MimeMessage toMessage(Claimed mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setTo(mail.recipient);
+        helper.setSubject(mail.subject);
+        helper.setText(mail.body);
+        message.saveChanges();
+        return message;
+    }
+
+    private void refused(Claimed mail, MessagingException error, boolean permanent) {
+        int attempts = mail.attempts + 1;
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        if (permanent || attempts >= maxAttempts) {
+            System.err.println("Giving up on email to " + mail.recipient + " after " + attempts + " attempts: " + message);
+            jdbcTemplate.update("update mail_outbox set status = 'FAILED', attempts = ?, last_error = ? where id = ?",
+                    attempts, message, mail.id);
+            return;
+        }
+        // Exponential backoff with jitter, so mail refused together is not retried together.
+        long backoff = Math.min(MAX_BACKOFF.toMillis(), retryBackoff.toMillis() << Math.min(attempts - 1, 20));
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        jdbcTemplate.update("update mail_outbox set attempts = ?, last_error = ?, " +
+                        "next_attempt_at = now() + make_interval(secs => ?) where id = ?",
+                attempts, message, delay / 1000.0, mail.id);
+    }
+
+    private void putBack(List<Claimed> mails) {
+        jdbcTemplate.batchUpdate("update mail_outbox set next_attempt_at = now() where id = ?",
+                mails, mails.size(), (ps, mail) -> ps.setObject(1, mail.id));
+    }
+
+    private static final class Claimed {
+        private final UUID id;
+        private final String recipient;
+        private final String subject;
+        private final String body;
+        private final int attempts;
+
+        private Claimed(UUID id, String recipient, String subject, String body, int attempts) {
+            this.id = id;
+            this.recipient = recipient;
+            this.subject = subject;
+            this.body = body;
+            this.attempts = attempts;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.Jobtrackr.jta.mail.service;
+
+import com.Jobtrackr.jta.mail.entity.OutboxMail;
+import com.Jobtrackr.jta.mail.repository.OutboxMailRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Queues mail in {@code mail_outbox} as part of the caller's transaction, so a mail
+ * is sent exactly when the change it announces commits. {@link MailDispatcher} sends
+ * it in the background.
+ */
+@Service
+public class MailOutbox {
+
+    private final OutboxMailRepository outboxMailRepository;
+    private final MailDispatcher mailDispatcher;
+
+    public MailOutbox(OutboxMailRepository outboxMailRepository, MailDispatcher mailDispatcher) {
+        this.outboxMailRepository = outboxMailRepository;
+        this.mailDispatcher = mailDispatcher;
+    }
+
+    public void enqueue(String recipient, String subject, String body) {
+        outboxMailRepository.save(new OutboxMail(recipient, subject, body));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    mailDispatcher.wake();
+                }
+            });
+        } else {
+            mailDispatcher.wake();
+        }
+    }
+}
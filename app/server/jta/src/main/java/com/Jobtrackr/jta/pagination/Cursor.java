@@ -0,0 +1,78 @@
+package com.Jobtrackr.jta.pagination;
+
+import com.Jobtrackr.jta.exception.BadRequestException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Opaque continuation token for feeds ordered by {@code (timestamp desc, id desc)}.
+ * The client treats it as a string; the server decodes it into the last row's sort key.
+ */
+public final class Cursor {
+
+    public static final int DEFAULT_SIZE = 10;
+    public static final int MAX_SIZE = 100;
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime timestamp;
+    private final UUID id;
+
+    public Cursor(LocalDateTime timestamp, UUID id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public UUID getId() { return id; }
+
+    public String encode() {
+        String raw = timestamp.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a missing cursor, meaning "start from the first page".
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new Cursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Fetches one row more than requested so the extra row tells us whether another page exists.
+     */
+    public static Limit probeLimit(int size) {
+        return Limit.of(clampSize(size) + 1);
+    }
+
+    public static int clampSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_SIZE);
+    }
+
+    public static <T> CursorSlice<T> slice(List<T> rows, int size, Function<T, Cursor> keyOf) {
+        int pageSize = clampSize(size);
+        boolean hasNext = rows.size() > pageSize;
+        List<T> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? keyOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorSlice<>(List.copyOf(content), pageSize, hasNext, nextCursor);
+    }
+}
@@ -0,0 +1,27 @@
+package com.Jobtrackr.jta.pagination;
+
+import java.util.List;
+
+/**
+ * A page of a keyset-paginated feed. Unlike {@link org.springframework.data.domain.Page}
+ * it carries no total count; {@code nextCursor} is null on the last page.
+ */
+public class CursorSlice<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    public CursorSlice(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() { return content; }
+    public int getSize() { return size; }
+    public boolean isHasNext() { return hasNext; }
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,28 @@
+package com.Jobtrackr.jta.skill.controller;
+
+import com.Jobtrackr.jta.skill.dto.AddSkillsRequest;
+import com.Jobtrackr.jta.skill.service.SkillService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/skills")
+public class SkillController {
+
+    private final SkillService skillService;
+
+    public SkillController(SkillService skillService) {
+        this.skillService = skillService;
+    }
+
+    @GetMapping
+    public List<String> getSkills() {
+        return skillService.getSkills();
+    }
+
+    @PostMapping
+    public List<String> addSkills(@RequestBody AddSkillsRequest request) {
+        return skillService.addSkills(request);
+    }
+}
@@ -0,0 +1,16 @@
+package com.Jobtrackr.jta.skill.dto;
+
+import java.util.List;
+
+public class AddSkillsRequest {
+
+    private List<String> skills;
+
+    public List<String> getSkills() {
+        return skills;
+    }
+
+    public void setSkills(List<String> skills) {
+        this.skills = skills;
+    }
+}
@@ -0,0 +1,7 @@
+package com.Jobtrackr.jta.skill.repository;
+
+import com.Jobtrackr.jta.skill.entity.Skill;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SkillRepo extends JpaRepository<Skill, Integer> {
+}
@@ -0,0 +1,290 @@
+package com.Jobtrackr.jta.skill.service;
+
+import com.Jobtrackr.jta.exception.BadRequestException;
+import com.Jobtrackr.jta.skill.entity.Skill;
+import com.Jobtrackr.jta.skill.repository.SkillRepo;
+import jakarta.annotation.PostConstruct;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Interns skill names to small integer ids, so a set of skills is stored as a bitset
+ * with bit {@code id} set for every skill it contains. Case, spacing and common
+ * aliases such as "JS" or "k8s" are ignored, so variants share one bit.
+ *
+ * The whole dictionary is held in memory and is closed: profiles and jobs may only
+ * use skills it already has. It starts from the list in {@code skills.txt} and grows
+ * only when an admin adds skills, up to {@value #MAX_DICTIONARY_SIZE}, so ids, and
+ * with them the stored bitsets, stay small.
+ */
+@Component
+public class SkillDictionary {
+
+    public static final int MAX_SKILLS = 50;
+    private static final int MAX_NAME_LENGTH = 64;
+    private static final int MAX_DICTIONARY_SIZE = 4096;
+    private static final String SEED = "skills.txt";
+
+    private static final Map<String, String> ALIASES = Map.ofEntries(
+            Map.entry("js", "JavaScript"),
+            Map.entry("ts", "TypeScript"),
+            Map.entry("golang", "Go"),
+            Map.entry("k8s", "Kubernetes"),
+            Map.entry("postgres", "PostgreSQL"),
+            Map.entry("psql", "PostgreSQL"),
+            Map.entry("node", "Node.js"),
+            Map.entry("nodejs", "Node.js"),
+            Map.entry("reactjs", "React"),
+            Map.entry("react.js", "React"),
+            Map.entry("vuejs", "Vue"),
+            Map.entry("vue.js", "Vue"),
+            Map.entry("springboot", "Spring Boot"),
+            Map.entry("ml", "Machine Learning"),
+            Map.entry("aws", "AWS"),
+            Map.entry("gcp", "Google Cloud")
+    );
+
+    private final SkillRepo skillRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[64];
+
+    public SkillDictionary(SkillRepo skillRepository, JdbcTemplate jdbcTemplate) {
+        this.skillRepository = skillRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Skill skill : skillRepository.findAll()) {
+                addLocked(skill.getId(), skill.getName(), skill.getNormalizedName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<String> seeded;
+        try (InputStream in = new ClassPathResource(SEED).getInputStream()) {
+            seeded = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+                    .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                    .toList();
+        }
+        int added = add(seeded);
+        if (added > 0) {
+            System.out.println("Seeded " + added + " skills");
+        }
+    }
+
+    /**
+     * The skills as a stored bitset. Null when empty; unknown skills are rejected.
+     */
+    public byte[] encode(Collection<String> rawSkills) {
+        if (rawSkills == null) {
+            return null;
+        }
+        if (rawSkills.size() > MAX_SKILLS) {
+            throw new BadRequestException("At most " + MAX_SKILLS + " skills are allowed");
+        }
+        BitSet bits = new BitSet();
+        List<String> unknown = new ArrayList<>();
+        for (String raw : rawSkills) {
+            if (raw != null && raw.strip().length() > MAX_NAME_LENGTH) {
+                throw new BadRequestException("Skill names must be at most " + MAX_NAME_LENGTH + " characters");
+            }
+            String key = normalize(raw);
+            if (key == null) {
+                continue;
+            }
+            Integer id = lookup(key);
+            if (id != null) {
+                bits.set(id);
+            } else {
+                unknown.add(collapse(raw));
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new BadRequestException("Unknown skills: " + String.join(", ", unknown));
+        }
+        return bits.isEmpty() ? null : bits.toByteArray();
+    }
+
+    public List<String> decode(byte[] skills) {
+        return names(bits(skills));
+    }
+
+    /**
+     * The names of the skills set in {@code bits}, in id order.
+     */
+    public List<String> names(long[] bits) {
+        List<String> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int word = 0; word < bits.length; word++) {
+                long remaining = bits[word];
+                while (remaining != 0) {
+                    int id = word * 64 + Long.numberOfTrailingZeros(remaining);
+                    if (id < names.length && names[id] != null) {
+                        result.add(names[id]);
+                    }
+                    remaining &= remaining - 1;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Adds the skills not known yet and returns how many were new. The rows are
+     * written before the lock is taken, so readers never wait on the database.
+     */
+    public int add(Collection<String> rawSkills) {
+        Map<String, String> missing = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String raw : rawSkills) {
+                String key = normalize(raw);
+                if (key == null || ids.containsKey(key)) {
+                    continue;
+                }
+                if (collapse(raw).length() > MAX_NAME_LENGTH) {
+                    throw new BadRequestException("Skill names must be at most " + MAX_NAME_LENGTH + " characters");
+                }
+                missing.putIfAbsent(key, ALIASES.getOrDefault(collapse(raw).toLowerCase(Locale.ROOT), collapse(raw)));
+            }
+            if (ids.size() + missing.size() > MAX_DICTIONARY_SIZE) {
+                throw new BadRequestException("The skill dictionary is limited to " + MAX_DICTIONARY_SIZE + " skills");
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        // Checking first keeps a conflicting insert from using up an id.
+        List<Object[]> rows = missing.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey(), entry.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate("insert into skills (name, normalized_name) select ?, ? " +
+                "where not exists (select 1 from skills where normalized_name = ?) " +
+                "on conflict (normalized_name) do nothing", rows);
+        List<Skill> stored = jdbcTemplate.query(
+                "select id, name, normalized_name from skills where normalized_name = any(?)",
+                (rs, row) -> {
+                    Skill skill = new Skill();
+                    skill.setId(rs.getInt("id"));
+                    skill.setName(rs.getString("name"));
+                    skill.setNormalizedName(rs.getString("normalized_name"));
+                    return skill;
+                },
+                (Object) missing.keySet().toArray(new String[0]));
+
+        int added = 0;
+        lock.writeLock().lock();
+        try {
+            for (Skill skill : stored) {
+                if (ids.containsKey(skill.getNormalizedName())) {
+                    continue;
+                }
+                addLocked(skill.getId(), skill.getName(), skill.getNormalizedName());
+                added++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return added;
+    }
+
+    /**
+     * All skill names, in id order.
+     */
+    public List<String> names() {
+        lock.readLock().lock();
+        try {
+            List<String> result = new ArrayList<>(ids.size());
+            for (String name : names) {
+                if (name != null) {
+                    result.add(name);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Integer lookup(String key) {
+        lock.readLock().lock();
+        try {
+            return ids.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static long[] bits(byte[] skills) {
+        return skills == null ? new long[0] : BitSet.valueOf(skills).toLongArray();
+    }
+
+    /**
+     * The canonical key: case and repeated whitespace are ignored, and aliases
+     * resolve to the skill they stand for.
+     */
+    public static String normalize(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String key = collapse(raw).toLowerCase(Locale.ROOT);
+        String alias = ALIASES.get(key);
+        if (alias != null) {
+            key = alias.toLowerCase(Locale.ROOT);
+        }
+        return key.isEmpty() ? null : key;
+    }
+
+    private void addLocked(int id, String name, String key) {
+        if (id >= names.length) {
+            names = Arrays.copyOf(names, Math.max(id + 1, names.length * 2));
+        }
+        names[id] = name;
+        ids.put(key, id);
+    }
+
+    private static String collapse(String raw) {
+        String trimmed = raw.strip().replaceAll("\\s+", " ");
+        int end = trimmed.length();
+        while (end > 0 && ",;".indexOf(trimmed.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return trimmed.substring(0, end);
+    }
+}
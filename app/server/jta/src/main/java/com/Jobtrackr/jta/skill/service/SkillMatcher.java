@@ -0,0 +1,397 @@
+package com.Jobtrackr.jta.skill.service;
+
+import com.Jobtrackr.jta.Job.dto.JobListResponse;
+import com.Jobtrackr.jta.Job.entity.Job;
+import com.Jobtrackr.jta.Job.search.OpenJobListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scores candidates against jobs by the number of skills they share: the popcount of
+ * the intersection of their skill bitsets.
+ *
+ * Candidate skill sets and those of open jobs are kept in memory. Ranking splits the
+ * sets to score into chunks of {@value #LEAF_SIZE} on a dedicated
+ * {@link ForkJoinPool}; each chunk keeps only its best {@code limit} results in a
+ * small heap and the heaps are merged on the way up, so nothing is sorted but the
+ * final page.
+ */
+@Component
+public class SkillMatcher implements OpenJobListener {
+
+    private static final int LEAF_SIZE = 4096;
+    private static final long[] NO_SKILLS = new long[0];
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool pool;
+
+    private final ConcurrentHashMap<UUID, long[]> candidateSkills = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, OpenJob> openJobs = new ConcurrentHashMap<>();
+    private final AtomicLong openJobChanges = new AtomicLong();
+    private volatile OpenJobs openJobsSnapshot;
+
+    // Taking the SkillDictionary makes this run after the schema update.
+    public SkillMatcher(JdbcTemplate jdbcTemplate,
+                        SkillDictionary skillDictionary,
+                        @Value("${skills.match.parallelism:0}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PostConstruct
+    public void load() {
+        jdbcTemplate.query("select id, skills from users where role = 'CANDIDATE' and skills is not null", rs -> {
+            candidateSkills.put(rs.getObject("id", UUID.class), SkillDictionary.bits(rs.getBytes("skills")));
+        });
+        System.out.println("Loaded skills of " + candidateSkills.size() + " candidates");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public void candidateSkillsChanged(UUID candidateId, byte[] skills) {
+        if (skills == null) {
+            candidateSkills.remove(candidateId);
+        } else {
+            candidateSkills.put(candidateId, SkillDictionary.bits(skills));
+        }
+    }
+
+    public long[] candidateSkills(UUID candidateId) {
+        return candidateSkills.getOrDefault(candidateId, NO_SKILLS);
+    }
+
+    @Override
+    public void rebuild(List<Job> openJobs) {
+        this.openJobs.clear();
+        for (Job job : openJobs) {
+            put(job);
+        }
+        openJobsChanged();
+    }
+
+    @Override
+    public void onJobOpened(Job job) {
+        put(job);
+        openJobsChanged();
+    }
+
+    @Override
+    public void onJobClosed(UUID jobId) {
+        openJobs.remove(jobId);
+        openJobsChanged();
+    }
+
+    /**
+     * The best {@code limit} of the candidates against the required skills, best
+     * first; ties go to the candidate listed first.
+     */
+    public List<Match> rankCandidates(List<UUID> candidateIds, long[] required, int limit) {
+        long[][] sets = new long[candidateIds.size()][];
+        for (int i = 0; i < sets.length; i++) {
+            sets[i] = candidateSkills(candidateIds.get(i));
+        }
+        return top(sets, required, limit, 0);
+    }
+
+    /**
+     * The open jobs sharing at least one skill with the candidate, most shared
+     * skills first.
+     */
+    public List<JobMatch> rankOpenJobs(long[] skills, int limit) {
+        List<JobMatch> result = new ArrayList<>();
+        if (skills.length == 0) {
+            return result;
+        }
+        OpenJobs snapshot = openJobsSnapshot();
+        for (Match match : top(snapshot.skills, skills, limit, 1)) {
+            OpenJob job = snapshot.jobs[match.getIndex()];
+            result.add(new JobMatch(job.row, job.skills, match.getMatched(), job.required));
+        }
+        return result;
+    }
+
+    public static int matched(long[] a, long[] b) {
+        int words = Math.min(a.length, b.length);
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    public static int count(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public static long[] intersection(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = a[i] & b[i];
+        }
+        return result;
+    }
+
+    private List<Match> top(long[][] sets, long[] target, int limit, int minMatched) {
+        TopK best = sets.length <= LEAF_SIZE
+                ? new ScoreTask(sets, target, 0, sets.length, limit, minMatched).compute()
+                : pool.invoke(new ScoreTask(sets, target, 0, sets.length, limit, minMatched));
+        long[] keys = best.sortedDescending();
+        List<Match> matches = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            matches.add(new Match(Integer.MAX_VALUE - (int) key, (int) (key >>> 32)));
+        }
+        return matches;
+    }
+
+    private void put(Job job) {
+        long[] skills = SkillDictionary.bits(job.getSkills());
+        if (skills.length == 0) {
+            openJobs.remove(job.getId());
+            return;
+        }
+        JobListResponse row = new JobListResponse(
+                job.getId(),
+                job.getTitle(),
+                job.getLocation(),
+                job.getSalary(),
+                job.getCompany() != null ? job.getCompany().getName() : "",
+                job.getCreatedAt()
+        );
+        openJobs.put(job.getId(), new OpenJob(row, skills));
+    }
+
+    private void openJobsChanged() {
+        openJobChanges.incrementAndGet();
+        openJobsSnapshot = null;
+    }
+
+    /**
+     * Open jobs as arrays for scanning, rebuilt on the first read after a change.
+     */
+    private OpenJobs openJobsSnapshot() {
+        OpenJobs snapshot = openJobsSnapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long changes = openJobChanges.get();
+        OpenJob[] jobs = openJobs.values().toArray(new OpenJob[0]);
+        // Newest first: among equally good matches the most recent job ranks higher.
+        Arrays.sort(jobs, Comparator.comparing((OpenJob job) -> job.row.getCreatedAt(),
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        long[][] skills = new long[jobs.length][];
+        for (int i = 0; i < jobs.length; i++) {
+            skills[i] = jobs[i].skills;
+        }
+        snapshot = new OpenJobs(jobs, skills);
+        if (openJobChanges.get() == changes) {
+            openJobsSnapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    private static final class ScoreTask extends RecursiveTask<TopK> {
+
+        private final long[][] sets;
+        private final long[] target;
+        private final int from;
+        private final int to;
+        private final int limit;
+        private final int minMatched;
+
+        private ScoreTask(long[][] sets, long[] target, int from, int to, int limit, int minMatched) {
+            this.sets = sets;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.limit = limit;
+            this.minMatched = minMatched;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from <= LEAF_SIZE) {
+                TopK best = new TopK(limit);
+                for (int i = from; i < to; i++) {
+                    int matched = matched(sets[i], target);
+                    if (matched >= minMatched) {
+                        // Higher keys rank first: more matches, then the lower index.
+                        best.offer(((long) matched << 32) | (Integer.MAX_VALUE - i));
+                    }
+                }
+                return best;
+            }
+            int middle = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(sets, target, from, middle, limit, minMatched);
+            left.fork();
+            TopK right = new ScoreTask(sets, target, middle, to, limit, minMatched).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * The {@code limit} largest keys offered, in a min-heap.
+     */
+    private static final class TopK {
+
+        private final long[] heap;
+        private int size;
+
+        private TopK(int limit) {
+            this.heap = new long[limit];
+        }
+
+        private void offer(long key) {
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (heap.length > 0 && key > heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        private TopK merge(TopK other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.heap[i]);
+            }
+            return this;
+        }
+
+        private long[] sortedDescending() {
+            long[] keys = Arrays.copyOf(heap, size);
+            Arrays.sort(keys);
+            for (int i = 0, j = keys.length - 1; i < j; i++, j--) {
+                long swap = keys[i];
+                keys[i] = keys[j];
+                keys[j] = swap;
+            }
+            return keys;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent] <= heap[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && heap[left] < heap[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && heap[right] < heap[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(smallest, index);
+                index = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long swap = heap[a];
+            heap[a] = heap[b];
+            heap[b] = swap;
+        }
+    }
+
+    private static final class OpenJob {
+        private final JobListResponse row;
+        private final long[] skills;
+        private final int required;
+
+        private OpenJob(JobListResponse row, long[] skills) {
+            this.row = row;
+            this.skills = skills;
+            this.required = count(skills);
+        }
+    }
+
+    private static final class OpenJobs {
+        private final OpenJob[] jobs;
+        private final long[][] skills;
+
+        private OpenJobs(OpenJob[] jobs, long[][] skills) {
+            this.jobs = jobs;
+            this.skills = skills;
+        }
+    }
+
+    public static final class Match {
+        private final int index;
+        private final int matched;
+
+        public Match(int index, int matched) {
+            this.index = index;
+            this.matched = matched;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getMatched() {
+            return matched;
+        }
+    }
+
+    public static final class JobMatch {
+        private final JobListResponse job;
+        private final long[] skills;
+        private final int matched;
+        private final int required;
+
+        public JobMatch(JobListResponse job, long[] skills, int matched, int required) {
+            this.job = job;
+            this.skills = skills;
+            this.matched = matched;
+            this.required = required;
+        }
+
+        public JobListResponse getJob() {
+            return job;
+        }
+
+        public long[] getSkills() {
+            return skills;
+        }
+
+        public int getMatched() {
+            return matched;
+        }
+
+        public int getRequired() {
+            return required;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.Jobtrackr.jta.skill.service;
+
+import com.Jobtrackr.jta.config.AuthPrincipal;
+import com.Jobtrackr.jta.exception.BadRequestException;
+import com.Jobtrackr.jta.skill.dto.AddSkillsRequest;
+import com.Jobtrackr.jta.user.entity.Role;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class SkillService {
+
+    private final SkillDictionary skillDictionary;
+
+    public SkillService(SkillDictionary skillDictionary) {
+        this.skillDictionary = skillDictionary;
+    }
+
+    public List<String> getSkills() {
+        return skillDictionary.names();
+    }
+
+    /**
+     * Adds skills to the dictionary so profiles and jobs can use them.
+     */
+    public List<String> addSkills(AddSkillsRequest request) {
+        AuthPrincipal.require(Role.ADMIN, "Only admins can add skills");
+        if (request.getSkills() == null || request.getSkills().isEmpty()) {
+            throw new BadRequestException("No skills given");
+        }
+        if (request.getSkills().size() > SkillDictionary.MAX_SKILLS) {
+            throw new BadRequestException("At most " + SkillDictionary.MAX_SKILLS + " skills can be added at once");
+        }
+        skillDictionary.add(request.getSkills());
+        return skillDictionary.names();
+    }
+}
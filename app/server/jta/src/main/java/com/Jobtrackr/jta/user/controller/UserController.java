@@ -1,5 +1,6 @@
 package com.Jobtrackr.jta.user.controller;
 
+import com.Jobtrackr.jta.export.ExportFormat;
 import com.Jobtrackr.jta.user.dto.AuthUser;
 import com.Jobtrackr.jta.user.dto.ChangePasswordRequest;
 import com.Jobtrackr.jta.user.dto.ForgotPasswordRequest;
@@ -11,10 +12,14 @@ import com.Jobtrackr.jta.user.dto.ResetPasswordRequest;
 import com.Jobtrackr.jta.user.dto.UpdateProfileRequest;
 import com.Jobtrackr.jta.user.dto.UserResponse;
 import com.Jobtrackr.jta.user.dto.VerifyEmailRequest;
+import com.Jobtrackr.jta.user.entity.Role;
 import com.Jobtrackr.jta.user.service.UserService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -40,6 +45,17 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) Role role) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.attachment("users"))
+                .body(userService.exportUsers(exportFormat, role));
+    }
+
     @GetMapping("/{id}")
     public UserResponse getUser(@PathVariable UUID id) {
         return userService.getUserById(id);
@@ -2,6 +2,7 @@ package com.Jobtrackr.jta.user.dto;
 
 import com.Jobtrackr.jta.user.entity.Role;
 
+import java.util.List;
 import java.util.UUID;
 
 public class AuthUser {
@@ -10,13 +11,15 @@ public class AuthUser {
     private String email;
     private Role role;
     private String location;
+    private List<String> skills;
 
-    public AuthUser(UUID id, String name, String email, Role role, String location) {
+    public AuthUser(UUID id, String name, String email, Role role, String location, List<String> skills) {
         this.id = id;
         this.name = name;
         this.email = email;
         this.role = role;
         this.location = location;
+        this.skills = skills;
     }
 
     public UUID getId() { return id; }
@@ -24,4 +27,5 @@ public class AuthUser {
     public String getEmail() { return email; }
     public Role getRole() { return role; }
     public String getLocation() { return location; }
+    public List<String> getSkills() { return skills; }
 }
@@ -1,9 +1,12 @@
 package com.Jobtrackr.jta.user.dto;
 
+import java.util.List;
+
 public class UpdateProfileRequest {
 
     private String name;
     private String location;
+    private List<String> skills;
 
     public String getName() {
         return name;
@@ -20,5 +23,13 @@ public class UpdateProfileRequest {
     public void setLocation(String location) {
         this.location = location;
     }
+
+    public List<String> getSkills() {
+        return skills;
+    }
+
+    public void setSkills(List<String> skills) {
+        this.skills = skills;
+    }
 }
 
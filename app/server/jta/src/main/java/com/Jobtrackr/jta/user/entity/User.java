@@ -18,6 +18,11 @@ public class User {
 
     private String location;
 
+    private Integer locationId;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] skills;
+
     @Column(unique = true, nullable = false)
     private String email;
 
@@ -45,6 +50,12 @@ public class User {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
+    public Integer getLocationId() { return locationId; }
+    public void setLocationId(Integer locationId) { this.locationId = locationId; }
+
+    public byte[] getSkills() { return skills; }
+    public void setSkills(byte[] skills) { this.skills = skills; }
+
     public String getEmail() {
         return email;
     }
@@ -65,7 +76,7 @@ public class User {
         isActive = active;
     }
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id")
     private Company company;
 
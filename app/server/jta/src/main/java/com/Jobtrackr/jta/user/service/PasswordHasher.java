@@ -0,0 +1,149 @@
+package com.Jobtrackr.jta.user.service;
+
+import com.Jobtrackr.jta.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes and checks passwords with BCrypt on a small dedicated pool, so a burst of
+ * logins can use at most {@code security.password.hash-threads} cores and the rest of
+ * the API keeps running. When {@code security.password.hash-queue} requests are
+ * already waiting, further ones fail at once with 503 instead of piling up.
+ *
+ * With {@code security.password.bcrypt-strength=0} the cost is calibrated at startup
+ * to the highest one that hashes within {@code security.password.target-ms} on this
+ * host. Hashes stored with a lower cost are rehashed after the next successful login.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+    private static final int CALIBRATION_STRENGTH = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public PasswordHasher(JdbcTemplate jdbcTemplate,
+                          @Value("${security.password.bcrypt-strength:0}") int strength,
+                          @Value("${security.password.target-ms:250}") long targetMillis,
+                          @Value("${security.password.hash-threads:0}") int threads,
+                          @Value("${security.password.hash-queue:32}") int queueSize,
+                          @Value("${security.password.hash-timeout:10s}") Duration timeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.encoder = new BCryptPasswordEncoder(strength > 0 ? strength : calibrate(targetMillis));
+        this.timeoutMillis = timeout.toMillis();
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String hash(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String storedHash) {
+        return run(() -> encoder.matches(rawPassword, storedHash));
+    }
+
+    /**
+     * Rehashes the password with the current cost if it was stored with a lower one.
+     * Call only after {@link #matches} succeeded. Runs in the background and is skipped
+     * while the pool is busy; the next login tries again.
+     */
+    public void upgradeIfNeeded(UUID userId, String rawPassword, String storedHash) {
+        if (!encoder.upgradeEncoding(storedHash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    // Only replaces the hash that was checked, never a password changed meanwhile.
+                    jdbcTemplate.update("update users set password = ? where id = ? and password = ?",
+                            encoder.encode(rawPassword), userId, storedHash);
+                } catch (RuntimeException e) {
+                    System.err.println("Failed to upgrade password hash for user " + userId + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Busy; not worth failing or delaying the login for.
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Too many sign-in requests, try again shortly");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new ServiceUnavailableException("Too many sign-in requests, try again shortly");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while checking password");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Times the cheapest practical cost and scales up: each step doubles the work.
+     */
+    private static int calibrate(long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_STRENGTH);
+        probe.encode("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = MIN_STRENGTH;
+        long estimate = best << (MIN_STRENGTH - CALIBRATION_STRENGTH);
+        long target = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        while (strength < MAX_STRENGTH && estimate * 2 <= target) {
+            strength++;
+            estimate *= 2;
+        }
+        System.out.println("BCrypt cost " + strength + " (about "
+                + TimeUnit.NANOSECONDS.toMillis(estimate) + " ms per hash, target " + targetMillis + " ms)");
+        return strength;
+    }
+}
@@ -1,12 +1,17 @@
 package com.Jobtrackr.jta.user.service;
 
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import com.Jobtrackr.jta.config.AuthPrincipal;
 import com.Jobtrackr.jta.config.JwtUtil;
 import com.Jobtrackr.jta.exception.BadRequestException;
 import com.Jobtrackr.jta.exception.ConflictException;
 import com.Jobtrackr.jta.exception.NotFoundException;
 import com.Jobtrackr.jta.exception.UnauthorizedActionException;
+import com.Jobtrackr.jta.export.ExportFormat;
+import com.Jobtrackr.jta.export.JdbcExporter;
+import com.Jobtrackr.jta.location.service.LocationDictionary;
+import com.Jobtrackr.jta.mail.service.MailOutbox;
+import com.Jobtrackr.jta.skill.service.SkillDictionary;
+import com.Jobtrackr.jta.skill.service.SkillMatcher;
 import com.Jobtrackr.jta.user.dto.AuthUser;
 import com.Jobtrackr.jta.user.dto.ChangePasswordRequest;
 import com.Jobtrackr.jta.user.dto.ForgotPasswordRequest;
@@ -28,8 +33,11 @@ import com.Jobtrackr.jta.user.dto.VerifyEmailRequest;
 import com.Jobtrackr.jta.user.util.PasswordValidator;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.List;
@@ -41,9 +49,14 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordResetTokenRepository resetTokenRepository;
     private final EmailVerificationTokenRepository emailVerificationTokenRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
-    private final JavaMailSender mailSender;
+    private final MailOutbox mailOutbox;
+    private final TransactionTemplate transaction;
+    private final LocationDictionary locationDictionary;
+    private final JdbcExporter jdbcExporter;
+    private final SkillDictionary skillDictionary;
+    private final SkillMatcher skillMatcher;
 
     private static final int RESET_TOKEN_VALID_MINUTES = 60;
     private static final int EMAIL_OTP_VALID_MINUTES = 15;
@@ -51,15 +64,25 @@ public class UserService {
     public UserService(UserRepository userRepository,
                        PasswordResetTokenRepository resetTokenRepository,
                        EmailVerificationTokenRepository emailVerificationTokenRepository,
-                       BCryptPasswordEncoder passwordEncoder,
+                       PasswordHasher passwordHasher,
                        JwtUtil jwtUtil,
-                       JavaMailSender mailSender) {
+                       MailOutbox mailOutbox,
+                       PlatformTransactionManager transactionManager,
+                       LocationDictionary locationDictionary,
+                       JdbcExporter jdbcExporter,
+                       SkillDictionary skillDictionary,
+                       SkillMatcher skillMatcher) {
         this.userRepository = userRepository;
         this.resetTokenRepository = resetTokenRepository;
         this.emailVerificationTokenRepository = emailVerificationTokenRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.jwtUtil = jwtUtil;
-        this.mailSender = mailSender;
+        this.mailOutbox = mailOutbox;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.locationDictionary = locationDictionary;
+        this.jdbcExporter = jdbcExporter;
+        this.skillDictionary = skillDictionary;
+        this.skillMatcher = skillMatcher;
     }
 
     public UserResponse registerUser(RegisterRequest request) {
@@ -67,47 +90,44 @@ public class UserService {
             throw new ConflictException("Email already exists");
         }
         PasswordValidator.validate(request.getPassword());
+        // Hashed before the transaction, so no connection is held while it runs.
+        String passwordHash = passwordHasher.hash(request.getPassword());
+
+        // The user, the verification code and its email are committed together.
+        User savedUser = transaction.execute(status -> {
+            User user = new User();
+            user.setName(request.getName());
+            user.setEmail(request.getEmail());
+            user.setPassword(passwordHash);
+            user.setRole(request.getRole() != null ? request.getRole() : Role.CANDIDATE);
+            user.setLocation(null);
+            user.setEmailVerified(false); // Default to false
+
+            User saved = userRepository.save(user);
+
+            // Automatically send verification email after registration
+            String code = String.format("%06d",
+                    new java.util.Random().nextInt(1_000_000));
+
+            Instant expiresAt =
+                    Instant.now().plusSeconds(EMAIL_OTP_VALID_MINUTES * 60L);
+
+            emailVerificationTokenRepository.save(
+                    new EmailVerificationToken(code, saved, expiresAt)
+            );
 
-        User user = new User();
-        user.setName(request.getName());
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setRole(request.getRole() != null ? request.getRole() : Role.CANDIDATE);
-        user.setLocation(null);
-        user.setEmailVerified(false); // Default to false
-
-        User savedUser = userRepository.save(user);
-
-        // Automatically send verification email after registration
-        String code = String.format("%06d",
-                new java.util.Random().nextInt(1_000_000));
-
-        Instant expiresAt =
-                Instant.now().plusSeconds(EMAIL_OTP_VALID_MINUTES * 60L);
-
-        emailVerificationTokenRepository.save(
-                new EmailVerificationToken(code, savedUser, expiresAt)
-        );
-
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(savedUser.getEmail());
-            message.setSubject("JobTracker Email Verification Code");
-            message.setText(
-                    "Hello " + savedUser.getName() + ",\n\n" +
+            mailOutbox.enqueue(
+                    saved.getEmail(),
+                    "JobTracker Email Verification Code",
+                    "Hello " + saved.getName() + ",\n\n" +
                             "Your verification code is: " + code + "\n\n" +
                             "This code will expire in " + EMAIL_OTP_VALID_MINUTES + " minutes."
             );
 
-            mailSender.send(message);
-
-            System.out.println("Verification email sent to: " + savedUser.getEmail());
+            System.out.println("Verification email queued for: " + saved.getEmail());
             System.out.println("Verification code: " + code); // For development
-
-        } catch (Exception e) {
-            // Don't fail registration if email fails, but log it
-            System.err.println("Failed to send verification email: " + e.getMessage());
-        }
+            return saved;
+        });
 
         return new UserResponse(
                 savedUser.getId(),
@@ -131,12 +151,7 @@ public class UserService {
     }
 
     public List<UserResponse> getAllUsers() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User current = userRepository.findByEmail(auth.getName())
-                .orElseThrow(() -> new NotFoundException("User not found"));
-        if (current.getRole() != Role.ADMIN) {
-            throw new UnauthorizedActionException("Only admins can list all users");
-        }
+        AuthPrincipal.require(Role.ADMIN, "Only admins can list all users");
         return userRepository.findAll().stream()
                 .map(user -> new UserResponse(
                         user.getId(),
@@ -148,28 +163,45 @@ public class UserService {
                 .toList();
     }
 
+    public StreamingResponseBody exportUsers(ExportFormat format, Role role) {
+        AuthPrincipal.require(Role.ADMIN, "Only admins can export users");
+        String sql = "select id, name, email, role, location, is_active as active, email_verified, created_at from users";
+        if (role == null) {
+            return jdbcExporter.stream(format, sql);
+        }
+        return jdbcExporter.stream(format, sql + " where role = ?", role.name());
+    }
+
     public AuthUser updateProfile(UpdateProfileRequest request) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !auth.isAuthenticated()) {
             throw new UnauthorizedActionException("Not authenticated");
         }
-        User user = userRepository.findByEmail(auth.getName())
+        User user = userRepository.findById(AuthPrincipal.current().getUserId())
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
         if (request.getName() != null && !request.getName().isBlank()) {
             user.setName(request.getName().trim());
         }
         if (request.getLocation() != null) {
-            user.setLocation(request.getLocation().trim());
+            user.setLocationId(locationDictionary.intern(request.getLocation()));
+            user.setLocation(locationDictionary.name(user.getLocationId()));
+        }
+        if (request.getSkills() != null) {
+            user.setSkills(skillDictionary.encode(request.getSkills()));
         }
 
         User saved = userRepository.save(user);
+        if (saved.getRole() == Role.CANDIDATE) {
+            skillMatcher.candidateSkillsChanged(saved.getId(), saved.getSkills());
+        }
         return new AuthUser(
                 saved.getId(),
                 saved.getName(),
                 saved.getEmail(),
                 saved.getRole(),
-                saved.getLocation()
+                saved.getLocation(),
+                skillDictionary.decode(saved.getSkills())
         );
     }
 
@@ -178,31 +210,34 @@ public class UserService {
         if (auth == null || !auth.isAuthenticated()) {
             throw new UnauthorizedActionException("Not authenticated");
         }
-        User user = userRepository.findByEmail(auth.getName())
+        User user = userRepository.findById(AuthPrincipal.current().getUserId())
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getCurrentPassword(), user.getPassword())) {
             throw new ConflictException("Current password is incorrect");
         }
         PasswordValidator.validate(request.getNewPassword());
 
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setPassword(passwordHasher.hash(request.getNewPassword()));
         userRepository.save(user);
     }
     public LoginResponse login(LoginRequest request) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new ConflictException("Invalid password");
         }
         if (!user.isEmailVerified()) {
             throw new ConflictException("EMAIL_NOT_VERIFIED");
         }
+        passwordHasher.upgradeIfNeeded(user.getId(), request.getPassword(), user.getPassword());
 
         String token = jwtUtil.generateToken(
+                user.getId(),
                 user.getEmail(),
-                user.getRole().name()
+                user.getRole(),
+                user.getCompany() != null ? user.getCompany().getId() : null
         );
 
         AuthUser authUser = new AuthUser(
@@ -210,7 +245,8 @@ public class UserService {
                 user.getName(),
                 user.getEmail(),
                 user.getRole(),
-                user.getLocation()
+                user.getLocation(),
+                skillDictionary.decode(user.getSkills())
         );
         return new LoginResponse(token, authUser);
     }
@@ -223,10 +259,12 @@ public class UserService {
                 user.getName(),
                 user.getEmail(),
                 user.getRole(),
-                user.getLocation()
+                user.getLocation(),
+                skillDictionary.decode(user.getSkills())
         );
     }
 
+    @Transactional
     public void forgotPassword(ForgotPasswordRequest request) {
 
         userRepository.findByEmail(request.getEmail()).ifPresent(user -> {
@@ -236,22 +274,14 @@ public class UserService {
 
             resetTokenRepository.save(new PasswordResetToken(token, user, expiresAt));
 
-            try {
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setTo(user.getEmail());
-                message.setSubject("Password Reset Request");
-                message.setText(
-                        "Reset your password using this link:\n\n" +
-                                "http://localhost:5173/reset-password?token=" + token
-                );
-
-                mailSender.send(message);
-
-                System.out.println("Password reset email sent to: " + user.getEmail());
+            mailOutbox.enqueue(
+                    user.getEmail(),
+                    "Password Reset Request",
+                    "Reset your password using this link:\n\n" +
+                            "http://localhost:5173/reset-password?token=" + token
+            );
 
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to send reset email: " + e.getMessage());
-            }
+            System.out.println("Password reset email queued for: " + user.getEmail());
         });
 
         // Always return success to avoid revealing whether email exists
@@ -271,13 +301,14 @@ public class UserService {
         }
 
         User user = resetToken.getUser();
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setPassword(passwordHasher.hash(request.getNewPassword()));
         userRepository.save(user);
 
         resetToken.setUsed(true);
         resetTokenRepository.save(resetToken);
     }
 
+    @Transactional
     public void requestEmailVerification(RequestEmailVerificationRequest request) {
 
         User user = userRepository.findByEmail(request.getEmail())
@@ -293,24 +324,15 @@ public class UserService {
                 new EmailVerificationToken(code, user, expiresAt)
         );
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(user.getEmail());
-            message.setSubject("JobTracker Email Verification Code");
-            message.setText(
-                    "Hello " + user.getName() + ",\n\n" +
-                            "Your verification code is: " + code + "\n\n" +
-                            "This code will expire in " + EMAIL_OTP_VALID_MINUTES + " minutes."
-            );
-
-            mailSender.send(message);
-
-            System.out.println("Verification email sent to: " + user.getEmail());
+        mailOutbox.enqueue(
+                user.getEmail(),
+                "JobTracker Email Verification Code",
+                "Hello " + user.getName() + ",\n\n" +
+                        "Your verification code is: " + code + "\n\n" +
+                        "This code will expire in " + EMAIL_OTP_VALID_MINUTES + " minutes."
+        );
 
-        } catch (Exception e) {
-            throw new RuntimeException(
-                    "Failed to send verification email: " + e.getMessage());
-        }
+        System.out.println("Verification email queued for: " + user.getEmail());
     }
 
     public void verifyEmail(VerifyEmailRequest request) {
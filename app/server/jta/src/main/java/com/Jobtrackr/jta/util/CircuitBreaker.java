@@ -0,0 +1,76 @@
+package com.Jobtrackr.jta.util;
+
+import java.time.Duration;
+
+/**
+ * Stops calling a dependency that keeps failing. After {@code failureThreshold}
+ * consecutive failures the breaker opens and {@link #allowRequest()} refuses calls for
+ * {@code openDuration}; then a single trial call is let through. Its success closes the
+ * breaker, its failure opens it for another period.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private long trialAt;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Whether a call may be made now. Moves an open breaker whose period has passed to
+     * half-open, admitting one trial call until its outcome is recorded.
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialAt = System.nanoTime();
+                return true;
+            default:
+                // One trial at a time; another only if the last one's outcome never came.
+                if (System.nanoTime() - trialAt < openNanos) {
+                    return false;
+                }
+                trialAt = System.nanoTime();
+                return true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+    }
+
+    public synchronized void recordFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,308 @@
+package com.Jobtrackr.jta.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Path-compressed (radix) trie from strings to int values. Chains of single-child
+ * nodes collapse into one edge label, and children and values are kept in small
+ * sorted primitive arrays rather than maps, so a node costs a few dozen bytes.
+ *
+ * Every node can carry a payload of type {@code P}, such as a summary of the values
+ * below it, and knows its parent so a change can be propagated up to the root. A node
+ * created by splitting an edge starts with the payload of the node below it, which
+ * covers the same values. Removing values prunes nodes left empty and merges a node
+ * left with a single child back into it, so the trie stays compact as keys come and go.
+ *
+ * Not thread-safe; callers guard it with their own lock.
+ */
+public final class CompactTrie<P> {
+
+    private final Node<P> root = new Node<>("", null);
+    private int size;
+    private int nodeCount = 1;
+
+    /**
+     * Stores the value under the key and returns the node holding it.
+     */
+    public Node<P> put(String key, int value) {
+        Node<P> node = root;
+        int pos = 0;
+        while (pos < key.length()) {
+            int index = node.childIndex(key.charAt(pos));
+            if (index < 0) {
+                Node<P> leaf = new Node<>(key.substring(pos), node);
+                node.addChild(-index - 1, leaf);
+                nodeCount++;
+                node = leaf;
+                break;
+            }
+
+            Node<P> child = node.children[index];
+            int common = commonPrefix(child.label, key, pos);
+            if (common < child.label.length()) {
+                node.children[index] = child.split(common);
+                nodeCount++;
+                child = node.children[index];
+            }
+            node = child;
+            pos += common;
+        }
+        if (node.addValue(value)) {
+            size++;
+        }
+        return node;
+    }
+
+    /**
+     * Removes the value from the key. Returns the lowest node whose subtree changed,
+     * from which payloads need updating up to the root, or null if the value was not
+     * stored under the key.
+     */
+    public Node<P> remove(String key, int value) {
+        Node<P> node = find(key);
+        if (node == null || !node.removeValue(value)) {
+            return null;
+        }
+        size--;
+        while (node != root && node.valueCount == 0 && node.childCount == 0) {
+            Node<P> parent = node.parent;
+            parent.removeChild(node);
+            nodeCount--;
+            node = parent;
+        }
+        if (node != root && node.valueCount == 0 && node.childCount == 1) {
+            Node<P> parent = node.parent;
+            parent.children[parent.childIndex(node.label.charAt(0))] = node.merge();
+            nodeCount--;
+            node = parent;
+        }
+        return node;
+    }
+
+    /**
+     * The node for exactly this key, or null if no node ends there.
+     */
+    public Node<P> find(String key) {
+        Node<P> node = root;
+        int pos = 0;
+        while (pos < key.length()) {
+            int index = node.childIndex(key.charAt(pos));
+            if (index < 0) {
+                return null;
+            }
+            Node<P> child = node.children[index];
+            if (!key.startsWith(child.label, pos)) {
+                return null;
+            }
+            node = child;
+            pos += child.label.length();
+        }
+        return node;
+    }
+
+    /**
+     * Visits every value stored under a key that starts with {@code prefix}. A value
+     * stored under several matching keys is visited once per key.
+     */
+    public void forEachWithPrefix(String prefix, IntConsumer consumer) {
+        Node<P> node = root;
+        int pos = 0;
+        while (pos < prefix.length()) {
+            int index = node.childIndex(prefix.charAt(pos));
+            if (index < 0) {
+                return;
+            }
+            Node<P> child = node.children[index];
+            int common = commonPrefix(child.label, prefix, pos);
+            if (pos + common < prefix.length() && common < child.label.length()) {
+                return;
+            }
+            node = child;
+            pos += common;
+        }
+        visit(node, consumer);
+    }
+
+    public Node<P> root() {
+        return root;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Rough heap size of the nodes, with {@code payloadBytes} giving each payload's.
+     */
+    public long estimateBytes(ToLongFunction<P> payloadBytes) {
+        return estimateBytes(root, payloadBytes);
+    }
+
+    private static <P> void visit(Node<P> node, IntConsumer consumer) {
+        for (int i = 0; i < node.valueCount; i++) {
+            consumer.accept(node.values[i]);
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            visit(node.children[i], consumer);
+        }
+    }
+
+    private static <P> long estimateBytes(Node<P> node, ToLongFunction<P> payloadBytes) {
+        long bytes = 48 + 24 + arrayBytes(node.label.length(), 1)
+                + arrayBytes(node.children.length, 4) + arrayBytes(node.firstChars.length, 2)
+                + arrayBytes(node.values.length, 4)
+                + (node.payload != null ? payloadBytes.applyAsLong(node.payload) : 0);
+        for (int i = 0; i < node.childCount; i++) {
+            bytes += estimateBytes(node.children[i], payloadBytes);
+        }
+        return bytes;
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return (16 + (long) length * elementBytes + 7) & ~7L;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    public static final class Node<P> {
+
+        private static final Node<?>[] NO_CHILDREN = new Node<?>[0];
+        private static final char[] NO_CHARS = new char[0];
+        private static final int[] NO_VALUES = new int[0];
+
+        private String label;
+        private Node<P> parent;
+        private char[] firstChars = NO_CHARS;
+        @SuppressWarnings("unchecked")
+        private Node<P>[] children = (Node<P>[]) NO_CHILDREN;
+        private int childCount;
+        private int[] values = NO_VALUES;
+        private int valueCount;
+        private P payload;
+
+        private Node(String label, Node<P> parent) {
+            this.label = label;
+            this.parent = parent;
+        }
+
+        /**
+         * The characters on the edge into this node.
+         */
+        public String label() {
+            return label;
+        }
+
+        /**
+         * Null for the root.
+         */
+        public Node<P> parent() {
+            return parent;
+        }
+
+        public int childCount() {
+            return childCount;
+        }
+
+        public Node<P> child(int index) {
+            return children[index];
+        }
+
+        public int valueCount() {
+            return valueCount;
+        }
+
+        public int value(int index) {
+            return values[index];
+        }
+
+        public P payload() {
+            return payload;
+        }
+
+        public void setPayload(P payload) {
+            this.payload = payload;
+        }
+
+        private int childIndex(char c) {
+            return Arrays.binarySearch(firstChars, 0, childCount, c);
+        }
+
+        private void addChild(int at, Node<P> child) {
+            if (childCount == children.length) {
+                int capacity = Math.max(2, childCount * 2);
+                children = Arrays.copyOf(children, capacity);
+                firstChars = Arrays.copyOf(firstChars, capacity);
+            }
+            System.arraycopy(children, at, children, at + 1, childCount - at);
+            System.arraycopy(firstChars, at, firstChars, at + 1, childCount - at);
+            children[at] = child;
+            firstChars[at] = child.label.charAt(0);
+            childCount++;
+        }
+
+        private void removeChild(Node<P> child) {
+            int at = childIndex(child.label.charAt(0));
+            System.arraycopy(children, at + 1, children, at, childCount - at - 1);
+            System.arraycopy(firstChars, at + 1, firstChars, at, childCount - at - 1);
+            children[--childCount] = null;
+        }
+
+        private boolean addValue(int value) {
+            for (int i = 0; i < valueCount; i++) {
+                if (values[i] == value) {
+                    return false;
+                }
+            }
+            if (valueCount == values.length) {
+                values = Arrays.copyOf(values, Math.max(1, valueCount * 2));
+            }
+            values[valueCount++] = value;
+            return true;
+        }
+
+        private boolean removeValue(int value) {
+            for (int i = 0; i < valueCount; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--valueCount];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Keeps the first {@code at} characters on a new parent and moves this node below it.
+         */
+        private Node<P> split(int at) {
+            Node<P> middle = new Node<>(label.substring(0, at), parent);
+            label = label.substring(at);
+            parent = middle;
+            middle.addChild(0, this);
+            middle.payload = payload;
+            return middle;
+        }
+
+        /**
+         * Folds this valueless node into its only child, which takes its place.
+         */
+        private Node<P> merge() {
+            Node<P> child = children[0];
+            child.label = label + child.label;
+            child.parent = parent;
+            return child;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.Jobtrackr.jta.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Counterpart of {@link CsvReader}: writes RFC 4180 records one at a time, quoting
+ * only the fields that need it. Nulls are written as empty fields.
+ */
+public class CsvWriter {
+
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeRecord(List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(fields.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String field) throws IOException {
+        if (field == null) {
+            return;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < field.length() && !needsQuotes; i++) {
+            char c = field.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
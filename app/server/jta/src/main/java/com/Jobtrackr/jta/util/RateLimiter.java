@@ -0,0 +1,110 @@
+package com.Jobtrackr.jta.util;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket per key, kept as the generic cell rate algorithm: each key holds a
+ * single timestamp, the moment its bucket will be full again, and a request is
+ * admitted by moving that timestamp forward one emission interval with a
+ * compare-and-set. No locks and no refill thread are involved.
+ *
+ * A bucket whose timestamp has passed is full and behaves exactly like a new one,
+ * so such buckets are dropped by {@link #evictIdle()}. At most {@code maxKeys} keys
+ * are tracked. Once that many are active, requests for further keys are admitted
+ * without a bucket rather than made to share one: keys can be chosen by the caller,
+ * e.g. an email in the body, and a shared bucket would let anyone who fills the map
+ * lock out every other key. Callers that combine limiters therefore keep the limits
+ * of those not full, such as per client when the per-account map is full.
+ */
+public class RateLimiter {
+
+    private static final long MIN_SWEEP_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile long lastSweep = System.nanoTime() - MIN_SWEEP_INTERVAL_NANOS;
+
+    /**
+     * Admits {@code permits} requests per {@code period} per key on average, and up to
+     * {@code burst} at once.
+     */
+    public RateLimiter(int permits, Duration period, int burst, int maxKeys) {
+        if (permits < 1 || burst < 1) {
+            throw new IllegalArgumentException("permits and burst must be positive");
+        }
+        this.intervalNanos = period.toNanos() / permits;
+        this.toleranceNanos = intervalNanos * burst;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes a token for the key. Returns 0 if it was admitted, otherwise how many
+     * nanoseconds to wait before a token is available; nothing is taken then.
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = bucket(key);
+        if (bucket == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + intervalNanos;
+            long wait = next - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops every full bucket. A request racing with the removal of its bucket may go
+     * uncounted, which can only make the limit slightly more lenient.
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        lastSweep = now;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Null when the key is new and no more keys can be tracked.
+     */
+    private AtomicLong bucket(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            sweepIfDue();
+            if (buckets.size() >= maxKeys) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+    }
+
+    private void sweepIfDue() {
+        if (System.nanoTime() - lastSweep < MIN_SWEEP_INTERVAL_NANOS || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            evictIdle();
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
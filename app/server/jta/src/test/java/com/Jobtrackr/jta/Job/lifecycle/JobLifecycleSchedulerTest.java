@@ -0,0 +1,174 @@
+package com.Jobtrackr.jta.Job.lifecycle;
+
+import com.Jobtrackr.jta.Job.entity.Job;
+import com.Jobtrackr.jta.Job.entity.JobStatus;
+import com.Jobtrackr.jta.Job.repository.JobRepo;
+import com.Jobtrackr.jta.Job.repository.JobScheduleView;
+import com.Jobtrackr.jta.Job.search.OpenJobIndexer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the scheduler on its real one-second wheel against a mocked repository. Past-due
+ * transitions are applied right away; transitions a second out are waited for.
+ */
+class JobLifecycleSchedulerTest {
+
+    private static final long WAIT_MILLIS = 2500;
+
+    private final JobRepo jobRepository = mock(JobRepo.class);
+    private final OpenJobIndexer openJobIndexer = mock(OpenJobIndexer.class);
+    private final JobLifecycleScheduler scheduler = new JobLifecycleScheduler(jobRepository, openJobIndexer);
+
+    @AfterEach
+    void stop() {
+        scheduler.stop();
+    }
+
+    @Test
+    void appliesTransitionsThatFellDueWhileStopped() {
+        UUID scheduled = UUID.randomUUID();
+        UUID expired = UUID.randomUUID();
+        Job published = job(scheduled);
+        when(jobRepository.findPendingTransitions(JobStatus.SCHEDULED, JobStatus.OPEN)).thenReturn(List.of(
+                view(scheduled, JobStatus.SCHEDULED, minutesFromNow(-5), minutesFromNow(60)),
+                view(expired, JobStatus.OPEN, null, minutesFromNow(-1))));
+        when(jobRepository.findAllWithCompanyByIdInAndStatus(List.of(scheduled), JobStatus.OPEN))
+                .thenReturn(List.of(published));
+
+        scheduler.start();
+
+        verify(jobRepository, timeout(WAIT_MILLIS))
+                .updateStatus(List.of(scheduled), List.of(JobStatus.SCHEDULED), JobStatus.OPEN);
+        verify(openJobIndexer, timeout(WAIT_MILLIS)).jobsOpened(List.of(published));
+        verify(jobRepository, timeout(WAIT_MILLIS))
+                .updateStatus(List.of(expired), List.of(JobStatus.OPEN, JobStatus.SCHEDULED), JobStatus.CLOSED);
+        verify(openJobIndexer, timeout(WAIT_MILLIS)).jobsClosed(List.of(expired));
+    }
+
+    @Test
+    void jobsDueTogetherAreUpdatedAsOneBatchAndOnlyStillOpenOnesIndexed() {
+        UUID stillScheduled = UUID.randomUUID();
+        UUID closedMeanwhile = UUID.randomUUID();
+        Job published = job(stillScheduled);
+        when(jobRepository.findPendingTransitions(JobStatus.SCHEDULED, JobStatus.OPEN)).thenReturn(List.of(
+                view(stillScheduled, JobStatus.SCHEDULED, minutesFromNow(-1), null),
+                view(closedMeanwhile, JobStatus.SCHEDULED, minutesFromNow(-1), null)));
+        // The guarded UPDATE skips the job closed meanwhile, so only one comes back as open.
+        when(jobRepository.findAllWithCompanyByIdInAndStatus(anyCollection(), eq(JobStatus.OPEN)))
+                .thenReturn(List.of(published));
+
+        scheduler.start();
+
+        verify(jobRepository, timeout(WAIT_MILLIS)).updateStatus(
+                argThat(ids -> Set.copyOf(ids).equals(Set.of(stillScheduled, closedMeanwhile))),
+                eq(List.of(JobStatus.SCHEDULED)), eq(JobStatus.OPEN));
+        verify(openJobIndexer, timeout(WAIT_MILLIS)).jobsOpened(List.of(published));
+        verify(openJobIndexer, never()).jobsClosed(anyList());
+    }
+
+    @Test
+    void jobClosedBeforeItsPublishTimeIsNeverPublished() {
+        UUID jobId = UUID.randomUUID();
+        scheduler.start();
+        scheduler.schedulePublish(jobId, secondsFromNow(1));
+        scheduler.scheduleExpiry(jobId, secondsFromNow(1));
+
+        // What closing the job does.
+        scheduler.cancel(jobId);
+
+        sleep(WAIT_MILLIS);
+        verify(jobRepository, never()).updateStatus(anyCollection(), anyCollection(), any());
+    }
+
+    @Test
+    void reschedulingReplacesThePendingTransition() {
+        UUID jobId = UUID.randomUUID();
+        scheduler.start();
+        scheduler.schedulePublish(jobId, secondsFromNow(1));
+        scheduler.schedulePublish(jobId, minutesFromNow(60));
+
+        sleep(WAIT_MILLIS);
+        verify(jobRepository, never()).updateStatus(anyCollection(), anyCollection(), any());
+
+        scheduler.schedulePublish(jobId, minutesFromNow(-1));
+        verify(jobRepository, timeout(WAIT_MILLIS))
+                .updateStatus(List.of(jobId), List.of(JobStatus.SCHEDULED), JobStatus.OPEN);
+    }
+
+    @Test
+    void expiringAScheduledJobDropsItsPublish() {
+        UUID jobId = UUID.randomUUID();
+        scheduler.start();
+        scheduler.schedulePublish(jobId, secondsFromNow(1));
+        scheduler.scheduleExpiry(jobId, minutesFromNow(-1));
+
+        verify(jobRepository, timeout(WAIT_MILLIS))
+                .updateStatus(List.of(jobId), List.of(JobStatus.OPEN, JobStatus.SCHEDULED), JobStatus.CLOSED);
+        sleep(WAIT_MILLIS);
+        verify(jobRepository, never()).updateStatus(anyCollection(), eq(List.of(JobStatus.SCHEDULED)), any());
+    }
+
+    private static JobScheduleView view(UUID id, JobStatus status, LocalDateTime publishAt, LocalDateTime expiresAt) {
+        return new JobScheduleView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public JobStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public LocalDateTime getPublishAt() {
+                return publishAt;
+            }
+
+            @Override
+            public LocalDateTime getExpiresAt() {
+                return expiresAt;
+            }
+        };
+    }
+
+    private static Job job(UUID id) {
+        Job job = new Job();
+        job.setId(id);
+        job.setStatus(JobStatus.OPEN);
+        return job;
+    }
+
+    private static LocalDateTime secondsFromNow(long seconds) {
+        return LocalDateTime.now().plusSeconds(seconds);
+    }
+
+    private static LocalDateTime minutesFromNow(long minutes) {
+        return LocalDateTime.now().plusMinutes(minutes);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
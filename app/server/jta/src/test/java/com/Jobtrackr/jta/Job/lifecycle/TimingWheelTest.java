@@ -0,0 +1,103 @@
+package com.Jobtrackr.jta.Job.lifecycle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the wheel the way {@link JobLifecycleScheduler} does, on a clock that starts
+ * at the epoch: every bucket is then already past due for the delay queue, so the
+ * buckets come out at once, in expiration order, and the wheel's own clock decides
+ * what fires when.
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int SIZE = 4;
+
+    private final DelayQueue<TimerBucket<String>> queue = new DelayQueue<>();
+    private final TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, 0, queue);
+
+    @Test
+    void entryAlreadyDueIsLeftToTheCaller() {
+        assertFalse(wheel.add(new TimerEntry<>("now", 5)));
+        assertTrue(wheel.add(new TimerEntry<>("next tick", TICK)));
+    }
+
+    @Test
+    void entriesFireInTheTickTheyExpireIn() {
+        add("b", 25);
+        add("a", 12);
+        add("c", 39);
+
+        assertEquals(Map.of("a", 10L, "b", 20L, "c", 30L), drive());
+    }
+
+    @Test
+    void entriesBeyondTheWheelCascadeFromTheUpperLevel() {
+        // The first level spans 40 ms, the second 160 ms and the third 640 ms.
+        add("second level", 137);
+        add("third level", 421);
+        add("first level", 15);
+
+        Map<String, Long> fired = drive();
+
+        assertEquals(List.of("first level", "second level", "third level"), new ArrayList<>(fired.keySet()));
+        // Each fires in its own first-level tick, not when its upper-level bucket comes due.
+        assertEquals(10L, fired.get("first level"));
+        assertEquals(130L, fired.get("second level"));
+        assertEquals(420L, fired.get("third level"));
+    }
+
+    @Test
+    void cancelledEntriesNeverFire() {
+        TimerEntry<String> near = add("near", 15);
+        TimerEntry<String> far = add("far", 300);
+        add("kept", 301);
+        near.cancel();
+        far.cancel();
+
+        assertEquals(Map.of("kept", 300L), drive());
+    }
+
+    @Test
+    void bucketIsQueuedOncePerExpiration() {
+        add("a", 21);
+        add("b", 22);
+        add("c", 29);
+
+        assertEquals(1, queue.size());
+    }
+
+    private TimerEntry<String> add(String name, long expiration) {
+        TimerEntry<String> entry = new TimerEntry<>(name, expiration);
+        assertTrue(wheel.add(entry), name + " was due on arrival");
+        return entry;
+    }
+
+    /**
+     * Fires everything, recording for each entry the time of the bucket it fired from.
+     */
+    private Map<String, Long> drive() {
+        Map<String, Long> fired = new LinkedHashMap<>();
+        TimerBucket<String> bucket;
+        while ((bucket = queue.poll()) != null) {
+            long now = bucket.getExpiration();
+            wheel.advanceClock(now);
+            bucket.flush(entry -> {
+                if (!wheel.add(entry)) {
+                    fired.put(entry.getPayload(), now);
+                }
+            });
+        }
+        return fired;
+    }
+}
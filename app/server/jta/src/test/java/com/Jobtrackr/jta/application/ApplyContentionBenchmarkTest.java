@@ -0,0 +1,221 @@
+package com.Jobtrackr.jta.application;
+
+import com.Jobtrackr.jta.Job.entity.Job;
+import com.Jobtrackr.jta.Job.entity.JobStatus;
+import com.Jobtrackr.jta.Job.repository.JobRepo;
+import com.Jobtrackr.jta.application.entity.Application;
+import com.Jobtrackr.jta.application.repository.ApplicationRepository;
+import com.Jobtrackr.jta.application.service.ApplicationService;
+import com.Jobtrackr.jta.config.AuthPrincipal;
+import com.Jobtrackr.jta.exception.BadRequestException;
+import com.Jobtrackr.jta.user.entity.Role;
+import com.Jobtrackr.jta.user.entity.User;
+import com.Jobtrackr.jta.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Applies from many threads at once, every application submitted twice like a
+ * double-click, through the old four-round-trip path and through
+ * {@link ApplicationService#apply}. Prints applies per second for both.
+ *
+ * Needs the database and is skipped unless run with {@code -Dbenchmark=true}:
+ * {@code mvn test -Dtest=ApplyContentionBenchmarkTest -Dbenchmark=true}
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ApplyContentionBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int CANDIDATES = 200;
+    private static final int JOBS_PER_RUN = 25;
+
+    @Autowired
+    private ApplicationService applicationService;
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private JobRepo jobRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+    private final UUID companyId = UUID.randomUUID();
+    private final UUID recruiterId = UUID.randomUUID();
+    private final List<UUID> jobIds = new ArrayList<>();
+    private final List<String> candidates = new ArrayList<>();
+    private final Map<String, UUID> candidateIds = new HashMap<>();
+
+    @Test
+    void applyUnderContention() throws Exception {
+        seed();
+
+        Result before = measure("four round trips", jobIds.subList(0, JOBS_PER_RUN), this::legacyApply);
+        Result after = measure("single statement", jobIds.subList(JOBS_PER_RUN, 2 * JOBS_PER_RUN), (email, jobId) -> {
+            AuthPrincipal principal = new AuthPrincipal(candidateIds.get(email), email, Role.CANDIDATE, null);
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+            try {
+                applicationService.apply(jobId);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+
+        System.out.printf("apply speedup: %.2fx%n", after.perSecond() / before.perSecond());
+        assertEquals((long) CANDIDATES * JOBS_PER_RUN, after.applied);
+        assertEquals(0, after.errors);
+    }
+
+    /**
+     * The apply path as it was: find the user, find the job, check for a duplicate,
+     * then insert.
+     */
+    private void legacyApply(String email, UUID jobId) {
+        User candidate = userRepository.findByEmail(email).orElseThrow();
+        if (candidate.getRole() != Role.CANDIDATE) {
+            throw new IllegalStateException("Only candidates can apply");
+        }
+        Job job = jobRepository.findById(jobId).orElseThrow();
+        if (job.getStatus() != JobStatus.OPEN) {
+            throw new BadRequestException("Job is not open");
+        }
+        if (applicationRepository.existsByJobIdAndCandidateId(jobId, candidate.getId())) {
+            throw new BadRequestException("Already applied to this job");
+        }
+        Application application = new Application();
+        application.setJob(job);
+        application.setCandidate(candidate);
+        applicationRepository.save(application);
+    }
+
+    private Result measure(String name, List<UUID> jobs, BiConsumer<String, UUID> apply) throws Exception {
+        List<Runnable> attempts = new ArrayList<>();
+        Result result = new Result();
+        for (String email : candidates) {
+            for (UUID jobId : jobs) {
+                for (int click = 0; click < 2; click++) {
+                    attempts.add(() -> {
+                        try {
+                            apply.accept(email, jobId);
+                        } catch (BadRequestException e) {
+                            result.duplicates.incrementAndGet();
+                        } catch (DataIntegrityViolationException e) {
+                            result.violations.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            result.failures.incrementAndGet();
+                        }
+                    });
+                }
+            }
+        }
+        Collections.shuffle(attempts);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Runnable attempt : attempts) {
+            futures.add(pool.submit(attempt));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        result.nanos = System.nanoTime() - started;
+        pool.shutdown();
+
+        result.applied = applicationCount(jobs);
+        result.errors = result.failures.get();
+        System.out.printf("%s: %d attempts on %d threads in %d ms, %.0f applies/s; "
+                        + "%d applied, %d duplicates rejected, %d raw constraint violations, %d other errors%n",
+                name, attempts.size(), THREADS, result.nanos / 1_000_000, result.perSecond(),
+                result.applied, result.duplicates.get(), result.violations.get(), result.errors);
+        return result;
+    }
+
+    private long applicationCount(List<UUID> jobs) {
+        Long count = jdbcTemplate.queryForObject(
+                "select count(*) from applications where job_id = any (?::uuid[])", Long.class,
+                (Object) jobs.stream().map(UUID::toString).toArray(String[]::new));
+        return count != null ? count : 0;
+    }
+
+    private void seed() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("insert into company (id, name, created_at) values (?, ?, current_date)",
+                companyId, "bench-" + run);
+        jdbcTemplate.update("insert into users (id, name, email, password, role, is_active, email_verified, " +
+                        "created_at, company_id) values (?, ?, ?, 'x', 'RECRUITER', true, true, ?, ?)",
+                recruiterId, "bench recruiter", "bench-rec-" + run + "@bench.local", now, companyId);
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < CANDIDATES; i++) {
+            String email = "bench-" + run + "-" + i + "@bench.local";
+            UUID id = UUID.randomUUID();
+            candidates.add(email);
+            candidateIds.put(email, id);
+            users.add(new Object[]{id, "bench candidate " + i, email, now});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email, password, role, is_active, email_verified, " +
+                "created_at) values (?, ?, ?, 'x', 'CANDIDATE', true, true, ?)", users);
+
+        List<Object[]> jobs = new ArrayList<>();
+        for (int i = 0; i < 2 * JOBS_PER_RUN; i++) {
+            UUID id = UUID.randomUUID();
+            jobIds.add(id);
+            jobs.add(new Object[]{id, "Bench Job " + i, now, companyId, recruiterId});
+        }
+        jdbcTemplate.batchUpdate("insert into jobs (id, title, type, status, created_at, company_id, recruiter_id) " +
+                "values (?, ?, 'FULL_TIME', 'OPEN', ?, ?, ?)", jobs);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        Object ids = jobIds.stream().map(UUID::toString).toArray(String[]::new);
+        jdbcTemplate.update("delete from applications where job_id = any (?::uuid[])", ids);
+        jdbcTemplate.update("delete from job_application_counts where job_id = any (?::uuid[])", ids);
+        jdbcTemplate.update("delete from jobs where id = any (?::uuid[])", ids);
+        jdbcTemplate.update("delete from users where email like ?", "bench-%" + run + "%@bench.local");
+        jdbcTemplate.update("delete from company where id = ?", companyId);
+    }
+
+    private static final class Result {
+        private final AtomicLong duplicates = new AtomicLong();
+        private final AtomicLong violations = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private long applied;
+        private long errors;
+        private long nanos;
+
+        private double perSecond() {
+            return applied * 1e9 / nanos;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.Jobtrackr.jta.config;
+
+import com.Jobtrackr.jta.user.entity.Role;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request from its bearer token:
+ * <ul>
+ *     <li>{@code legacy}: the previous filter body, which built a verifier and
+ *     verified the token twice, once for the subject and once for the role;</li>
+ *     <li>{@code uncached}: {@link JwtAuthenticationFilter} seeing each token for the
+ *     first time, one verification;</li>
+ *     <li>{@code cached}: the filter seeing a token it has verified before, the
+ *     common case of a client sending the same token on every request.</li>
+ * </ul>
+ *
+ * Run with {@code mvn test-compile} and then
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.Jobtrackr.jta.config.JwtAuthenticationFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "super-secret-key-change-this";
+    // More distinct tokens than the verified-token cache holds, so none is found there.
+    private static final int DISTINCT_TOKENS = 50_000;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest cachedRequest;
+    private MockHttpServletRequest[] uncachedRequests;
+    private int next;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        // Tokens carrying a user id are resolved from their claims, without the database.
+        filter = new JwtAuthenticationFilter(jwtUtil, new PrincipalCache(null, jwtUtil));
+        cachedRequest = request(jwtUtil.generateToken(UUID.randomUUID(), "cand@x.io", Role.CANDIDATE, null));
+        uncachedRequests = new MockHttpServletRequest[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            uncachedRequests[i] = request(jwtUtil.generateToken(
+                    UUID.randomUUID(), "user" + i + "@x.io", Role.CANDIDATE, null));
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        String token = cachedRequest.getHeader("Authorization").substring(7);
+        String email = JWT.require(Algorithm.HMAC256(SECRET)).build().verify(token).getSubject();
+        String role = JWT.require(Algorithm.HMAC256(SECRET)).build().verify(token).getClaim("role").asString();
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                email, null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(cachedRequest));
+        blackhole.consume(authentication);
+    }
+
+    @Benchmark
+    public void uncached(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = uncachedRequests[next];
+        next = next + 1 == DISTINCT_TOKENS ? 0 : next + 1;
+        authenticate(request, blackhole);
+    }
+
+    @Benchmark
+    public void cached(Blackhole blackhole) throws Exception {
+        authenticate(cachedRequest, blackhole);
+    }
+
+    private void authenticate(MockHttpServletRequest request, Blackhole blackhole) throws Exception {
+        filter.doFilter(request, response, chain);
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
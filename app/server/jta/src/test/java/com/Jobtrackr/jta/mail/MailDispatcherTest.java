@@ -0,0 +1,172 @@
+package com.Jobtrackr.jta.mail;
+
+import com.Jobtrackr.jta.mail.service.MailDispatcher;
+import com.Jobtrackr.jta.mail.service.MailOutbox;
+import com.Jobtrackr.jta.util.CircuitBreaker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drains the mail outbox against {@link SmtpStandIn}. The background dispatcher is
+ * off, so each test drains explicitly, and only mail to {@code @outbox.test} is
+ * claimed, so mail really queued in the database is never sent or deleted.
+ */
+@SpringBootTest(properties = {
+        "mail.outbox.enabled=false",
+        "mail.outbox.recipient-pattern=%@outbox.test",
+        "mail.outbox.circuit-threshold=2",
+        "mail.outbox.circuit-open=1s",
+        "spring.mail.host=127.0.0.1",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "spring.mail.properties.mail.smtp.starttls.required=false"
+})
+class MailDispatcherTest {
+
+    private static final SmtpStandIn SMTP = start();
+
+    @Autowired
+    private MailOutbox mailOutbox;
+    @Autowired
+    private MailDispatcher mailDispatcher;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+    private int foreignRowsBefore;
+
+    @DynamicPropertySource
+    static void smtpPort(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.port", SMTP::port);
+    }
+
+    @BeforeEach
+    void queueForeignMail() {
+        // Due now, so a drain that claimed more than its own rows would send it.
+        mailOutbox.enqueue("bystander-" + run + "@example.test", "Bystander " + run, "Hello");
+        foreignRowsBefore = foreignRows();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SMTP.up();
+        try {
+            assertEquals(0, received("Bystander " + run), "sent mail that was not the test's own");
+            assertEquals(foreignRowsBefore, foreignRows(), "removed mail that was not the test's own");
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "select attempts from mail_outbox where recipient = ?", Integer.class,
+                    "bystander-" + run + "@example.test"));
+        } finally {
+            jdbcTemplate.update("delete from mail_outbox where recipient like '%@outbox.test' or recipient = ?",
+                    "bystander-" + run + "@example.test");
+        }
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        SMTP.close();
+    }
+
+    @Test
+    void sendsQueuedMailInBatchesOverOneConnection() {
+        for (int i = 0; i < 3; i++) {
+            mailOutbox.enqueue("user" + i + "@outbox.test", "Batch " + run + " " + i, "Hello");
+        }
+        int before = SMTP.connections();
+        mailDispatcher.drain();
+        int afterFirst = SMTP.connections();
+
+        mailOutbox.enqueue("user3@outbox.test", "Batch " + run + " 3", "Hello");
+        mailDispatcher.drain();
+
+        assertEquals(4, received("Batch " + run));
+        assertTrue(afterFirst - before <= 1, "opened more than one connection");
+        assertEquals(afterFirst, SMTP.connections(), "the second batch did not reuse the connection");
+        assertEquals(0, queued());
+    }
+
+    @Test
+    void refusedMailIsRetriedWithBackoff() {
+        mailOutbox.enqueue("reject-" + run + "@outbox.test", "Refused " + run, "Hello");
+
+        mailDispatcher.drain();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "select status, attempts, last_error, next_attempt_at > now() + interval '10 seconds' as backed_off " +
+                        "from mail_outbox where recipient = ?", "reject-" + run + "@outbox.test");
+        assertEquals("PENDING", row.get("status"));
+        assertEquals(1, row.get("attempts"));
+        assertNotNull(row.get("last_error"));
+        assertEquals(true, row.get("backed_off"));
+        assertEquals(0, received("Refused " + run));
+        // A refused recipient says nothing about the server.
+        assertEquals(CircuitBreaker.State.CLOSED, mailDispatcher.circuitState());
+    }
+
+    @Test
+    void stopsTryingWhileTheServerIsDownAndResumesAfter() throws InterruptedException {
+        SMTP.down();
+        mailOutbox.enqueue("down@outbox.test", "Outage " + run, "Hello");
+
+        mailDispatcher.drain();
+        mailDispatcher.drain();
+        assertEquals(CircuitBreaker.State.OPEN, mailDispatcher.circuitState());
+
+        int attempts = SMTP.connections();
+        mailDispatcher.drain();
+        assertEquals(attempts, SMTP.connections(), "connected while the circuit was open");
+        // The outage did not count against the mail itself.
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select attempts from mail_outbox where recipient = 'down@outbox.test'", Integer.class));
+
+        SMTP.up();
+        Thread.sleep(1100);
+        mailDispatcher.drain();
+
+        assertEquals(1, received("Outage " + run));
+        assertEquals(CircuitBreaker.State.CLOSED, mailDispatcher.circuitState());
+        assertEquals(0, queued());
+    }
+
+    private long received(String subject) {
+        return SMTP.messages().stream().filter(message -> message.contains("Subject: " + subject)).count();
+    }
+
+    private int queued() {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from mail_outbox where recipient like '%@outbox.test' and status = 'PENDING'",
+                Integer.class);
+    }
+
+    private int foreignRows() {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from mail_outbox where recipient not like '%@outbox.test'",
+                Integer.class);
+    }
+
+    private static SmtpStandIn start() {
+        try {
+            return new SmtpStandIn();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.Jobtrackr.jta.mail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Just enough of an SMTP server, in process, to test sending against. Records every
+ * accepted message, refuses recipients whose address starts with {@code reject},
+ * and while {@link #down()} greets new connections with 421 and drops open ones.
+ */
+class SmtpStandIn implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile boolean down;
+
+    SmtpStandIn() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "smtp-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    List<String> messages() {
+        return messages;
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    void down() {
+        down = true;
+        for (Socket socket : open) {
+            closeQuietly(socket);
+        }
+    }
+
+    void up() {
+        down = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        down();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread session = new Thread(() -> serve(socket), "smtp-stand-in-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            connections.incrementAndGet();
+            OutputStream out = socket.getOutputStream();
+            if (down) {
+                reply(out, "421 Service not available");
+                return;
+            }
+            open.add(socket);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            reply(out, "220 stand-in ESMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 stand-in");
+                } else if (command.startsWith("RCPT TO:") && command.contains("<REJECT")) {
+                    reply(out, "550 No such user");
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line).append('\n');
+                    }
+                    messages.add(data.toString());
+                    reply(out, "250 Queued");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    // MAIL FROM, RCPT TO, RSET and NOOP.
+                    reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // Dropped by down() or by the client.
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    private static void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closed.
+        }
+    }
+}
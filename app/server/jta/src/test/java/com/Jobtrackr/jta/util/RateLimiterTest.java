@@ -0,0 +1,93 @@
+package com.Jobtrackr.jta.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final long SLACK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void admitsTheBurstAtOnceThenAsksToWaitOneInterval() {
+        // 10 an hour is one every 6 minutes.
+        RateLimiter limiter = new RateLimiter(10, Duration.ofHours(1), 5, 100);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("a"), "request " + i + " of the burst");
+        }
+
+        long wait = limiter.tryAcquire("a");
+
+        long interval = Duration.ofMinutes(6).toNanos();
+        assertTrue(wait <= interval && wait > interval - SLACK_NANOS, "waited " + wait);
+    }
+
+    @Test
+    void rejectedRequestsTakeNoToken() {
+        RateLimiter limiter = new RateLimiter(10, Duration.ofHours(1), 1, 100);
+        assertEquals(0, limiter.tryAcquire("a"));
+
+        long first = limiter.tryAcquire("a");
+        long second = limiter.tryAcquire("a");
+
+        // A retry does not push the next token further out.
+        assertTrue(first > 0 && second > 0);
+        assertTrue(first - second >= 0 && first - second < SLACK_NANOS, first + " then " + second);
+    }
+
+    @Test
+    void admitsAgainOnceTheWaitHasPassed() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(20, Duration.ofSeconds(1), 1, 100);
+        assertEquals(0, limiter.tryAcquire("a"));
+        long wait = limiter.tryAcquire("a");
+        assertTrue(wait > 0);
+
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertEquals(0, limiter.tryAcquire("a"));
+    }
+
+    @Test
+    void keysAreLimitedSeparately() {
+        RateLimiter limiter = new RateLimiter(10, Duration.ofHours(1), 1, 100);
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void evictsOnlyBucketsThatAreFullAgain() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(20, Duration.ofSeconds(1), 1, 100);
+        limiter.tryAcquire("a");
+        limiter.evictIdle();
+        assertEquals(1, limiter.size());
+
+        // One interval, 50 ms, refills the bucket.
+        Thread.sleep(100);
+        limiter.evictIdle();
+
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void newKeysBeyondTheCapAreAdmittedWithoutSharingABucket() {
+        RateLimiter limiter = new RateLimiter(10, Duration.ofHours(1), 1, 2);
+        assertEquals(0, limiter.tryAcquire("tracked-1"));
+        assertEquals(0, limiter.tryAcquire("tracked-2"));
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire("flood-" + i));
+        }
+        assertEquals(0, limiter.tryAcquire("victim"));
+        assertEquals(0, limiter.tryAcquire("victim"));
+
+        // Keys already tracked stay limited, and memory stays bounded.
+        assertTrue(limiter.tryAcquire("tracked-1") > 0);
+        assertEquals(2, limiter.size());
+    }
+}